@@ -0,0 +1,123 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2022 Karate Labs Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.benchmarks;
+
+import com.intuit.karate.FileUtils;
+import com.intuit.karate.PerfHook;
+import com.intuit.karate.Runner;
+import com.intuit.karate.Suite;
+import com.intuit.karate.core.FeatureCall;
+import com.intuit.karate.core.FeatureResult;
+import com.intuit.karate.core.PerfEvent;
+import com.intuit.karate.core.ScenarioRuntime;
+import com.intuit.karate.http.HttpRequest;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * the per-iteration cost of karate-gatling, a new suite and feature parse for
+ * every call versus a suite and feature resolved once and re-used
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CallAsyncBenchmark {
+
+    static final String PATH = Fixtures.ROOT + "async.feature";
+
+    Suite suite;
+    FeatureCall feature;
+    FeatureResult result;
+    int user;
+
+    PerfHook perfHook = new PerfHook() {
+
+        @Override
+        public String getPerfEventName(HttpRequest request, ScenarioRuntime sr) {
+            return null;
+        }
+
+        @Override
+        public void reportPerfEvent(PerfEvent event) {
+
+        }
+
+        @Override
+        public void submit(Runnable runnable) {
+            runnable.run();
+        }
+
+        @Override
+        public void afterFeature(FeatureResult fr) {
+            if (fr.isFailed()) {
+                throw fr.getErrorMessagesCombined();
+            }
+            result = fr;
+        }
+
+        @Override
+        public void pause(Number millis) {
+
+        }
+
+    };
+
+    @Setup
+    public void setup() {
+        suite = Runner.asyncSuite(Runner.builder());
+        feature = FileUtils.parseFeatureAndCallTag(PATH);
+    }
+
+    @Benchmark
+    public FeatureCall overhead() { // what every call used to pay before running the feature
+        Runner.asyncSuite(Runner.builder());
+        return FileUtils.parseFeatureAndCallTag(PATH);
+    }
+
+    @Benchmark
+    public FeatureResult perCall() {
+        Runner.callAsync(Runner.builder(), PATH, Collections.singletonMap("user", user++), perfHook);
+        return result;
+    }
+
+    @Benchmark
+    public FeatureResult template() {
+        Runner.callAsync(suite, feature, Collections.singletonMap("user", user++), perfHook);
+        return result;
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2022 Karate Labs Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.benchmarks;
+
+import com.intuit.karate.JsonUtils;
+import com.intuit.karate.Match;
+import com.intuit.karate.graal.JsEngine;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * match each over large arrays, where the same fuzzy marker is applied to
+ * every element
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EachBenchmark {
+
+    @Param({"1000", "50000"})
+    int size;
+
+    JsEngine js;
+    List<Object> numbers;
+    List<Object> items;
+    Object schema;
+
+    @Setup
+    public void setup() {
+        js = JsEngine.local();
+        numbers = new ArrayList(size);
+        items = new ArrayList(size);
+        for (int i = 0; i < size; i++) {
+            numbers.add(i);
+            items.add(JsonUtils.fromJson("{ id: " + i + ", name: 'item" + i + "', tags: ['a', 'b'] }"));
+        }
+        schema = JsonUtils.fromJson("{ id: '#number? _ >= 0', name: '#regex item[0-9]+', tags: '#[2] #string' }");
+        for (Match.Result result : new Match.Result[]{type(), predicate(), schema()}) {
+            if (!result.pass) { // else we would only be measuring the failure path
+                throw new RuntimeException(result.message);
+            }
+        }
+    }
+
+    @Benchmark
+    public Match.Result type() {
+        return Match.execute(js, Match.Type.EACH_EQUALS, numbers, "#number", false);
+    }
+
+    @Benchmark
+    public Match.Result predicate() {
+        return Match.execute(js, Match.Type.EACH_EQUALS, numbers, "#? _ >= 0", false);
+    }
+
+    @Benchmark
+    public Match.Result schema() {
+        return Match.execute(js, Match.Type.EACH_EQUALS, items, schema, false);
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2022 Karate Labs Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.benchmarks;
+
+import com.intuit.karate.http.HttpUtils;
+import com.intuit.karate.http.UriPatternTrie;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HttpUtilsBenchmark {
+
+    // like a gatling protocol with many uri patterns, where each request needs a name
+    List<String> patterns;
+    UriPatternTrie<String> trie;
+    UriPatternTrie.Result<String> result;
+
+    @Setup
+    public void setup() {
+        patterns = new ArrayList(200);
+        trie = new UriPatternTrie();
+        result = new UriPatternTrie.Result();
+        for (int i = 0; i < 200; i++) {
+            String pattern = "/v1/resource" + i + "/{id}";
+            patterns.add(pattern);
+            trie.add(pattern, pattern);
+        }
+    }
+
+    @Benchmark
+    public Map<String, String> parseUriPatternMatch() {
+        return HttpUtils.parseUriPattern("/v1/cats/{id}/kittens/{kittenId}", "/v1/cats/42/kittens/7");
+    }
+
+    @Benchmark
+    public Map<String, String> parseUriPatternMiss() {
+        return HttpUtils.parseUriPattern("/v1/cats/{id}/kittens/{kittenId}", "/v1/dogs/42/toys");
+    }
+
+    @Benchmark
+    public Map<String, String> parseUriPatternStatic() {
+        return HttpUtils.parseUriPattern("/v1/health", "/v1/health");
+    }
+
+    @Benchmark
+    public String patternsLinear() {
+        for (String pattern : patterns) {
+            if (HttpUtils.parseUriPattern(pattern, "/v1/resource150/42") != null) {
+                return pattern;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public String patternsTrie() {
+        return trie.lookup("/v1/resource150/42");
+    }
+
+    @Benchmark
+    public String patternsTrieParams() {
+        trie.lookup("/v1/resource150/42", result);
+        return result.getParam("id");
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2022 Karate Labs Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.benchmarks;
+
+import com.intuit.karate.graal.JsEngine;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * evaluating the same few expressions again and again, after a number of
+ * one-off expressions (e.g. with embedded values) have gone through the source cache,
+ * and the same from several threads at once, which all share the cache
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsEvalBenchmark {
+
+    @Param({"0", "10000"})
+    int oneOff;
+
+    JsEngine js;
+    String[] hot;
+    int index;
+
+    @Setup
+    public void setup() {
+        js = JsEngine.local();
+        js.eval("var rows = [{ id: 1, name: 'foo' }, { id: 2, name: 'bar' }]");
+        for (int i = 0; i < oneOff; i++) {
+            js.eval("'one-off' + " + i);
+        }
+        hot = new String[20];
+        for (int i = 0; i < hot.length; i++) {
+            hot[i] = "rows.filter(function(x){ return x.id > " + i + " }).map(function(x){ return x.name }).length";
+        }
+    }
+
+    @Benchmark
+    public Object evalHot() {
+        String exp = hot[index++ % hot.length];
+        return js.evalForValue(exp).asInt();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object evalHotParallel() {
+        return evalHot();
+    }
+
+}
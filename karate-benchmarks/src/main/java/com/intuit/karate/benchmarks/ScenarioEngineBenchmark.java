@@ -0,0 +1,113 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2022 Karate Labs Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.benchmarks;
+
+import com.intuit.karate.FileUtils;
+import com.intuit.karate.JsonUtils;
+import com.intuit.karate.XmlUtils;
+import com.intuit.karate.core.Feature;
+import com.intuit.karate.core.Result;
+import com.intuit.karate.core.ScenarioEngine;
+import com.intuit.karate.core.Step;
+import com.intuit.karate.core.StepRuntime;
+import com.intuit.karate.core.Variable;
+import com.intuit.karate.http.HttpClientFactory;
+import com.intuit.karate.resource.MemoryResource;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * the engine as a step sees it, the embedded expression benchmarks mutate
+ * their input so they include the cost of a deep copy
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScenarioEngineBenchmark {
+
+    static final String STEPS = "Feature:\n"
+            + "Scenario:\n"
+            + "* def cat = { name: 'Billie', kittens: [{ name: 'Bob', id: 23 }, { name: 'Wild', id: 42 }] }\n"
+            + "* match cat.kittens[*].id contains [42, 23]\n"
+            + "* match each cat.kittens == { name: '#string', id: '#number' }\n";
+
+    ScenarioEngine engine;
+    Variable json;
+    Variable xml;
+    List<Step> steps;
+
+    @Setup
+    public void setup() {
+        engine = ScenarioEngine.forTempUse(HttpClientFactory.DEFAULT);
+        engine.setVariable("phoneNumber", "1234");
+        engine.setVariable("search", JsonUtils.fromJson("{ wireless: true, voip: false, tollFree: false }"));
+        engine.setVariable("name", "Billie");
+        json = new Variable(JsonUtils.fromJson("{ name: '#(name)', phone: '#(phoneNumber)', flags: '#(search)', ids: [1, '#(1 + 1)', 3], nested: { keep: '##(search.voip)', drop: '##(null)' } }"));
+        xml = new Variable(XmlUtils.toXmlDoc(Fixtures.read("soap.xml")));
+        Feature feature = Feature.read(new MemoryResource(FileUtils.WORKING_DIR, STEPS));
+        steps = feature.getSections().get(0).getScenario().getSteps();
+        Result result = stepExecute();
+        if (result.isFailed()) { // else we would only be measuring the failure path
+            throw new RuntimeException(result.getError());
+        }
+    }
+
+    @Benchmark
+    public Variable evalJs() {
+        return engine.evalJs("name.length + phoneNumber + (search.wireless ? 'w' : 'x')");
+    }
+
+    @Benchmark
+    public Variable evalEmbeddedExpressionsJson() {
+        return engine.evalEmbeddedExpressions(json.copy(true), false);
+    }
+
+    @Benchmark
+    public Variable evalEmbeddedExpressionsXml() {
+        return engine.evalEmbeddedExpressions(xml.copy(true), false);
+    }
+
+    @Benchmark
+    public Result stepExecute() {
+        Result result = null;
+        for (Step step : steps) {
+            result = StepRuntime.execute(step, engine.runtime.actions);
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2022 Karate Labs Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.benchmarks;
+
+import com.intuit.karate.XmlUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * xpath lookups on a soap envelope, repeated paths hit the per-thread compiled
+ * expression cache
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XmlBenchmark {
+
+    String text;
+    Document doc;
+
+    @Setup
+    public void setup() {
+        text = Fixtures.read("soap.xml");
+        doc = XmlUtils.toXmlDoc(text);
+    }
+
+    @Benchmark
+    public Document toXmlDoc() {
+        return XmlUtils.toXmlDoc(text);
+    }
+
+    @Benchmark
+    public NodeList getNodeListByPath() {
+        return XmlUtils.getNodeListByPath(doc, "/Envelope/Body/getAccountByPhoneNumber/phoneNumberSearchOption/*");
+    }
+
+    @Benchmark
+    public String getTextValueByPath() {
+        return XmlUtils.getTextValueByPath(doc, "/Envelope/Body/getAccountByPhoneNumber/phoneNumber");
+    }
+
+    @Benchmark
+    public String toXmlString() {
+        return XmlUtils.toString(doc);
+    }
+
+}
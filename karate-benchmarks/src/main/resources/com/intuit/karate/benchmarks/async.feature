@@ -0,0 +1,5 @@
+Feature: a minimal feature called once per gatling iteration
+
+Scenario: iteration
+* def result = { user: '#(user)', id: '#(1 + user)' }
+* match result.id == user + 1
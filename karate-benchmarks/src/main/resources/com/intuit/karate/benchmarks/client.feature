@@ -0,0 +1,17 @@
+Feature: throughput against an in-process mock
+
+Background:
+* url 'http://localhost:' + karate.properties['bench.port'] + '/cats'
+
+Scenario Outline: create and get <name>
+* request { name: '#(name)' }
+* method post
+* status 200
+* match response == { id: '#number', name: '#(name)' }
+* path response.id
+* method get
+* status 200
+* match response.name == name
+
+Examples:
+| karate.repeat(~~karate.properties['bench.scenarios'], function(i){ return { name: 'cat' + i } }) |
@@ -41,6 +41,7 @@ public class Constants {
     public static final String KARATE_OPTIONS = "karate.options";
     public static final String KARATE_REPORTS = "karate-reports";
     public static final String KARATE_JSON_SUFFIX = ".karate-json.txt";
+    public static final String KARATE_SUMMARY_JSON = "karate-summary-json.txt";
     
     public static final byte[] ZERO_BYTES = new byte[0];
 
@@ -33,6 +33,7 @@ import com.jayway.jsonpath.spi.mapper.MappingProvider;
 import de.siegmar.fastcsv.reader.CsvReader;
 import de.siegmar.fastcsv.reader.CsvRecord;
 import de.siegmar.fastcsv.writer.CsvWriter;
+import java.io.IOException;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -131,6 +132,11 @@ public class JsonUtils {
         return JsonUtils.toJsonSafe(o, pretty);
     }
 
+    // straight to the target instead of into a string first, for report items that can be large
+    public static void writeJson(Object o, Appendable out) throws IOException {
+        JSONValue.writeJSONString(o, out, JSON_STYLE);
+    }
+
     public static byte[] toJsonBytes(Object o) {
         return toJson(o).getBytes(StandardCharsets.UTF_8);
     }
@@ -62,6 +62,10 @@ public class Logger {
         return LOGGER.isTraceEnabled();
     }
 
+    public boolean isDebugEnabled() {
+        return LOGGER.isDebugEnabled();
+    }
+
     public void setAppendOnly(boolean appendOnly) {
         this.appendOnly = appendOnly;
     }
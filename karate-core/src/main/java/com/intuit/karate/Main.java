@@ -74,6 +74,9 @@ public class Main implements Callable<Void> {
     @Option(names = {"-W", "--watch"}, description = "watch (and hot-reload) mock server file for changes")
     boolean watch;
 
+    @Option(names = {"--concurrent"}, description = "mock server handles requests in parallel, use karate.lock() for shared state")
+    boolean concurrent;
+
     @Option(names = {"-S", "--serve"}, description = "app server using --workdir (experimental)")
     boolean serve;
 
@@ -94,6 +97,9 @@ public class Main implements Callable<Void> {
     @Option(names = {"-T", "--threads"}, description = "number of threads when running tests")
     int threads;
 
+    @Option(names = {"--virtual-threads"}, description = "run scenarios on virtual threads (java 21+), --threads is then the max concurrency")
+    boolean virtualThreads;
+
     @Option(names = {"-o", "--output"}, description = "directory where logs and report sub-folders are output (default 'target')")
     String output = FileUtils.getBuildDir();
 
@@ -160,6 +166,10 @@ public class Main implements Callable<Void> {
         return threads;
     }
 
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
     public int getDebugPort() {
         return debugPort;
     }        
@@ -343,6 +353,7 @@ public class Main implements Callable<Void> {
                     .outputCucumberJson(isOutputCucumberJson())
                     .outputJunitXml(isOutputJunitXml())
                     .dryRun(dryRun)
+                    .virtualThreads(virtualThreads)
                     .hooks(createHooks())
                     .parallel(threads);
             if (results.getFailCount() > 0) {
@@ -420,6 +431,7 @@ public class Main implements Callable<Void> {
                 .certFile(cert)
                 .keyFile(key)
                 .watch(watch)
+                .concurrent(concurrent)
                 .keepOriginalHeaders(keepOriginalHeaders);
         if (ssl) {
             builder.https(port);
@@ -105,6 +105,9 @@ public class Match {
         }
     }
 
+    public static final int EACH_MAX_FAILURES = 1;
+    public static final int EACH_PARALLEL_THRESHOLD = 10000;
+
     static final Result PASS = new Result(true, null);
 
     static Result fail(String message) {
@@ -225,6 +228,10 @@ public class Match {
             }
         }
 
+        Context withRoot(MatchOperation root) {
+            return new Context(JS, root, xml, depth, path, name, index);
+        }
+
     }
 
     static enum ValueType {
@@ -478,7 +485,13 @@ public class Match {
     }
 
     public static Result execute(JsEngine js, Type matchType, Object actual, Object expected, boolean matchEachEmptyAllowed) {
+        return execute(js, matchType, actual, expected, matchEachEmptyAllowed, EACH_MAX_FAILURES, EACH_PARALLEL_THRESHOLD);
+    }
+
+    public static Result execute(JsEngine js, Type matchType, Object actual, Object expected, boolean matchEachEmptyAllowed, int eachMaxFailures, int eachParallelThreshold) {
         MatchOperation mo = new MatchOperation(js, matchType.operator(matchEachEmptyAllowed), new Value(actual), new Value(expected));
+        mo.eachMaxFailures = Math.max(1, eachMaxFailures);
+        mo.eachParallelThreshold = eachParallelThreshold;
         mo.execute();
         if (mo.pass) {
             return PASS;
@@ -0,0 +1,214 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2022 Karate Labs Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.intuit.karate.MatchOperation.REGEX;
+
+/**
+ * the parsed form of a fuzzy match marker such as "#[_ > 0]", "##string" or
+ * "#regex .+" so that a "match each" over a large array does not re-parse the
+ * same string for every element, instances are immutable and shared
+ */
+class MatchMacro {
+
+    static final int CACHE_MAX_SIZE = 10000;
+
+    private static final Map<String, MatchMacro> CACHE = new ConcurrentHashMap<>();
+
+    static enum Kind {
+        NONE, // e.g. "#" or "##"
+        NESTED, // #(^foo)
+        ARRAY, // #[] | #[5] #string | #[]? _.length == 3
+        VALIDATOR // #string | #? _ > 0 | #regex .+
+    }
+
+    final String text;
+    final boolean optional;
+    final Kind kind;
+    // nested and schema reference
+    final Match.Type nestedType;
+    final String expression;
+    // array
+    final String sizeExpr;
+    final String eachMacro;
+    // validator
+    final String validatorName;
+    final Match.Validator validator;
+    final String predicate;
+    // true if matching never needs the js engine, so it is safe across threads
+    final boolean jsFree;
+
+    static MatchMacro of(String text) {
+        MatchMacro macro = CACHE.get(text);
+        if (macro == null) {
+            macro = new MatchMacro(text);
+            if (CACHE.size() < CACHE_MAX_SIZE) { // macros are typically literals in feature files
+                CACHE.putIfAbsent(text, macro);
+            }
+        }
+        return macro;
+    }
+
+    static int cacheSize() {
+        return CACHE.size();
+    }
+
+    private MatchMacro(String text) {
+        this.text = text;
+        optional = text.startsWith("##");
+        Kind kind = Kind.NONE;
+        Match.Type nestedType = null;
+        String expression = null;
+        String sizeExpr = null;
+        String eachMacro = null;
+        String validatorName = null;
+        Match.Validator validator = null;
+        String predicate = null;
+        int minLength = optional ? 3 : 2;
+        if (text.length() > minLength) {
+            String macro = text.substring(minLength - 1);
+            if (macro.startsWith("(") && macro.endsWith(")")) {
+                kind = Kind.NESTED;
+                macro = macro.substring(1, macro.length() - 1);
+                nestedType = toMatchType(false, macro);
+                expression = macro.substring(nestedType.shortcutLength);
+            } else if (macro.startsWith("[")) {
+                int closeBracketPos = macro.indexOf(']');
+                if (closeBracketPos != -1) {
+                    kind = Kind.ARRAY;
+                    if (closeBracketPos > 1) {
+                        String bracketContents = macro.substring(1, closeBracketPos);
+                        if (containsPlaceholderUnderscore(bracketContents)) { // #[_ < 5]
+                            sizeExpr = bracketContents;
+                        } else { // #[5] | #[$.foo]
+                            sizeExpr = bracketContents + " == _";
+                        }
+                    }
+                    if (macro.length() > closeBracketPos + 1) {
+                        macro = StringUtils.trimToNull(macro.substring(closeBracketPos + 1));
+                        if (macro != null) {
+                            if (macro.startsWith("(") && macro.endsWith(")")) {
+                                macro = macro.substring(1, macro.length() - 1); // strip parens
+                            }
+                            if (macro.startsWith("?")) { // #[]? _.length == 3
+                                macro = "#" + macro;
+                            }
+                            if (macro.startsWith("#")) {
+                                eachMacro = macro;
+                            } else { // schema reference
+                                nestedType = toMatchType(true, macro); // match each
+                                expression = macro.substring(nestedType.shortcutLength);
+                            }
+                        }
+                    }
+                }
+            } else { // '#? _ != 0' | '#string' | '#number? _ > 0'
+                kind = Kind.VALIDATOR;
+                int questionPos = macro.indexOf('?');
+                // in case of regex we don't want to remove the '?'
+                if (questionPos != -1 && !macro.startsWith(REGEX)) {
+                    validatorName = macro.substring(0, questionPos);
+                    if (macro.length() > questionPos + 1) {
+                        macro = StringUtils.trimToEmpty(macro.substring(questionPos + 1));
+                    } else {
+                        macro = "";
+                    }
+                } else {
+                    validatorName = macro;
+                    macro = "";
+                }
+                validatorName = StringUtils.trimToNull(validatorName);
+                if (validatorName != null) {
+                    if (validatorName.startsWith(REGEX)) {
+                        String regex = validatorName.substring(5).trim();
+                        validator = new Match.RegexValidator(regex);
+                    } else {
+                        validator = Match.VALIDATORS.get(validatorName);
+                    }
+                }
+                macro = StringUtils.trimToNull(macro);
+                if (macro != null && questionPos != -1) {
+                    predicate = macro;
+                }
+            }
+        }
+        this.kind = kind;
+        this.nestedType = nestedType;
+        this.expression = expression;
+        this.sizeExpr = sizeExpr;
+        this.eachMacro = eachMacro;
+        this.validatorName = validatorName;
+        this.validator = validator;
+        this.predicate = predicate;
+        switch (kind) {
+            case NESTED:
+                jsFree = false;
+                break;
+            case ARRAY:
+                jsFree = sizeExpr == null && expression == null && (eachMacro == null || of(eachMacro).jsFree);
+                break;
+            case VALIDATOR:
+                jsFree = predicate == null;
+                break;
+            default:
+                jsFree = true;
+        }
+    }
+
+    private static final Pattern UNDERSCORE_PATTERN = Pattern.compile("\\W_\\W|\\W_|_\\W");
+
+    private static boolean containsPlaceholderUnderscore(String bracketContents) {
+        Matcher m1 = UNDERSCORE_PATTERN.matcher(bracketContents);
+        return m1.find();
+    }
+
+    private static Match.Type toMatchType(boolean each, String macro) {
+        if (macro.startsWith("^^")) {
+            return each ? Match.Type.EACH_CONTAINS_ONLY : Match.Type.CONTAINS_ONLY;
+        } else if (macro.startsWith("^+")) {
+            return each ? Match.Type.EACH_CONTAINS_DEEP : Match.Type.CONTAINS_DEEP;
+        } else if (macro.startsWith("^*")) {
+            return each ? Match.Type.EACH_CONTAINS_ANY : Match.Type.CONTAINS_ANY;
+        } else if (macro.startsWith("^")) {
+            return each ? Match.Type.EACH_CONTAINS : Match.Type.CONTAINS;
+        } else if (macro.startsWith("!^")) {
+            return each ? Match.Type.EACH_NOT_CONTAINS : Match.Type.NOT_CONTAINS;
+        } else if (macro.startsWith("!=")) {
+            return each ? Match.Type.EACH_NOT_EQUALS : Match.Type.NOT_EQUALS;
+        } else {
+            return each ? Match.Type.EACH_EQUALS : Match.Type.EQUALS;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+}
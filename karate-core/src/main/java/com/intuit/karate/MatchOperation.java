@@ -56,6 +56,10 @@ public class MatchOperation {
     boolean pass = true;
     String failReason;
 
+    // only read from the root
+    int eachMaxFailures = Match.EACH_MAX_FAILURES;
+    int eachParallelThreshold = Match.EACH_PARALLEL_THRESHOLD;
+
     MatchOperation(MatchOperator type, Match.Value actual, Match.Value expected) {
         this(JsEngine.global(), null, type, actual, expected);
     }
@@ -4,8 +4,10 @@ import com.intuit.karate.graal.JsValue;
 
 import java.math.BigDecimal;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import org.w3c.dom.Node;
 
 import static com.intuit.karate.MatchOperation.REGEX;
 
@@ -14,6 +16,8 @@ public interface MatchOperator {
     public boolean execute(MatchOperation operation);
 
     class EachOperator implements MatchOperator {
+        static final int PARALLEL_CHUNK_MIN_SIZE = 1000;
+
         private final MatchOperator delegate;
         private final boolean matchEachEmptyAllowed;
 
@@ -35,23 +39,128 @@ public interface MatchOperator {
                     return operation.fail("match each failed, empty array / list");
                 }
                 int count = list.size();
+                int maxFailures = context.root.eachMaxFailures;
+                int threshold = context.root.eachParallelThreshold;
+                // only js expressions can refer to "_$" or need the (single-threaded) js engine
+                boolean jsFree = isJsFree(operation.expected.getValue());
+                // lazy js views must stay on the thread that owns the js context
+                if (jsFree && threshold > 0 && count >= threshold && !context.xml && !JsValue.isView(list) && !containsXml(list)) {
+                    return executeParallel(operation, list, maxFailures);
+                }
+                List<Integer> failedIndexes = null;
                 for (int i = 0; i < count; i++) {
                     Object o = list.get(i);
-                    context.JS.put("_$", o);
+                    if (!jsFree) {
+                        context.JS.put("_$", o);
+                    }
                     MatchOperation mo = new MatchOperation(context.descend(i), delegate, new Match.Value(o), operation.expected);
                     mo.execute();
-                    context.JS.bindings.removeMember("_$");
+                    if (!jsFree) {
+                        context.JS.bindings.removeMember("_$");
+                    }
                     if (!mo.pass) {
-                        return operation.fail("match each failed at index " + i);
+                        if (failedIndexes == null) {
+                            failedIndexes = new ArrayList(maxFailures);
+                        }
+                        failedIndexes.add(i);
+                        if (failedIndexes.size() >= maxFailures) {
+                            break;
+                        }
                     }
                 }
-                // if we reached here all / each LHS items completed successfully
-                return true;
+                // if we reached here without failures all / each LHS items completed successfully
+                return failedIndexes == null ? true : fail(operation, failedIndexes);
             } else {
                 return operation.fail("actual is not an array or list");
             }
         }
 
+        private boolean executeParallel(MatchOperation operation, List<?> list, int maxFailures) {
+            Match.Context context = operation.context;
+            int count = list.size();
+            int chunkSize = Math.max(PARALLEL_CHUNK_MIN_SIZE, count / (ForkJoinPool.getCommonPoolParallelism() * 4));
+            // failing index -> private root holding the failures for that element
+            ConcurrentSkipListMap<Integer, MatchOperation> failed = new ConcurrentSkipListMap();
+            List<ForkJoinTask<?>> tasks = new ArrayList();
+            for (int start = 0; start < count; start += chunkSize) {
+                int from = start;
+                int to = Math.min(count, start + chunkSize);
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    int chunkFailures = 0;
+                    for (int i = from; i < to; i++) {
+                        if (!failed.isEmpty() && failed.headMap(i).size() >= maxFailures) {
+                            return; // enough failures at lower indexes, this one will never be reported
+                        }
+                        Match.Value value = new Match.Value(list.get(i));
+                        MatchOperation holder = new MatchOperation(context.JS, delegate, value, operation.expected);
+                        holder.eachMaxFailures = maxFailures;
+                        holder.eachParallelThreshold = context.root.eachParallelThreshold;
+                        MatchOperation mo = new MatchOperation(context.descend(i).withRoot(holder), delegate, value, operation.expected);
+                        mo.execute();
+                        if (!mo.pass) {
+                            failed.put(i, holder);
+                            if (++chunkFailures >= maxFailures) {
+                                return;
+                            }
+                        }
+                    }
+                }));
+            }
+            ForkJoinTask.invokeAll(tasks);
+            if (failed.isEmpty()) {
+                return true;
+            }
+            List<Integer> failedIndexes = new ArrayList(maxFailures);
+            for (Map.Entry<Integer, MatchOperation> entry : failed.entrySet()) {
+                if (failedIndexes.size() >= maxFailures) {
+                    break;
+                }
+                failedIndexes.add(entry.getKey());
+                context.root.failures.addAll(entry.getValue().failures);
+            }
+            return fail(operation, failedIndexes);
+        }
+
+        private static boolean fail(MatchOperation operation, List<Integer> failedIndexes) {
+            if (failedIndexes.size() == 1) {
+                return operation.fail("match each failed at index " + failedIndexes.get(0));
+            }
+            return operation.fail("match each failed at indexes " + failedIndexes);
+        }
+
+        private static boolean containsXml(List<?> list) {
+            for (Object o : list) {
+                if (o instanceof Node) { // dom reads are not thread-safe
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        static boolean isJsFree(Object expected) {
+            if (expected == null || expected instanceof Number || expected instanceof Boolean) {
+                return true;
+            } else if (expected instanceof String s) {
+                return !s.startsWith("#") || MatchMacro.of(s).jsFree;
+            } else if (expected instanceof Map<?, ?> map) {
+                for (Object o : map.values()) {
+                    if (!isJsFree(o)) {
+                        return false;
+                    }
+                }
+                return true;
+            } else if (expected instanceof List<?> list) {
+                for (Object o : list) {
+                    if (!isJsFree(o)) {
+                        return false;
+                    }
+                }
+                return true;
+            } else {
+                return false;
+            }
+        }
+
     }
 
     class NotOperator implements MatchOperator {
@@ -165,100 +274,40 @@ public interface MatchOperator {
             if (optional && actual.isNull()) { // exit early
                 return true;
             }
-            int minLength = optional ? 3 : 2;
-            if (expStr.length() > minLength) {
-                String macro = expStr.substring(minLength - 1);
-                if (macro.startsWith("(") && macro.endsWith(")")) {
-                    macro = macro.substring(1, macro.length() - 1);
-                    Match.Type nestedType = macroToMatchType(false, macro);
-                    int startPos = matchTypeToStartPos(nestedType);
-                    macro = macro.substring(startPos);
-                    MatchOperator nestedOperator = nestedType.operator(isMatchEachEmptyAllowed());
+            MatchMacro macro = MatchMacro.of(expStr);
+            switch (macro.kind) {
+                case NESTED:
+                    MatchOperator nestedOperator = macro.nestedType.operator(isMatchEachEmptyAllowed());
                     if (isContainsFamily() && actual.isList()) { // special case, look for partial maps within list
                         nestedOperator = macroOperator(nestedOperator);
                     }
-                    context.JS.put("$", context.root.actual.getValue());
-                    context.JS.put("_", actual.getValue());
-                    JsValue jv = context.JS.eval(macro);
-                    context.JS.bindings.removeMember("$");
-                    context.JS.bindings.removeMember("_");
+                    JsValue jv = context.JS.evalWith(macro.expression, actual.getValue(), context.root.actual.getValue());
                     MatchOperation mo = new MatchOperation(context, nestedOperator, actual, new Match.Value(jv.getValue()));
                     return mo.execute();
-                } else if (macro.startsWith("[")) {
-                    int closeBracketPos = macro.indexOf(']');
-                    if (closeBracketPos != -1) { // array, match each
-                        if (!actual.isList()) {
-                            return operation.fail("actual is not an array");
-                        }
-                        if (closeBracketPos > 1) {
-                            String bracketContents = macro.substring(1, closeBracketPos);
-                            List<?> listAct = actual.getValue();
-                            int listSize = listAct.size();
-                            context.JS.put("$", context.root.actual.getValue());
-                            context.JS.put("_", listSize);
-                            String sizeExpr;
-                            if (containsPlaceholderUnderscore(bracketContents)) { // #[_ < 5]
-                                sizeExpr = bracketContents;
-                            } else { // #[5] | #[$.foo]
-                                sizeExpr = bracketContents + " == _";
-                            }
-                            JsValue jv = context.JS.eval(sizeExpr);
-                            context.JS.bindings.removeMember("$");
-                            context.JS.bindings.removeMember("_");
-                            if (!jv.isTrue()) {
-                                return operation.fail("actual array length is " + listSize);
-                            }
-                        }
-                        if (macro.length() > closeBracketPos + 1) {
-                            macro = StringUtils.trimToNull(macro.substring(closeBracketPos + 1));
-                            if (macro != null) {
-                                if (macro.startsWith("(") && macro.endsWith(")")) {
-                                    macro = macro.substring(1, macro.length() - 1); // strip parens
-                                }
-                                if (macro.startsWith("?")) { // #[]? _.length == 3
-                                    macro = "#" + macro;
-                                }
-                                if (macro.startsWith("#")) {
-                                    MatchOperation mo = new MatchOperation(context, Match.Type.EACH_EQUALS.operator(isMatchEachEmptyAllowed()), actual, new Match.Value(macro));
-                                    mo.execute();
-                                    return mo.pass ? operation.pass() : operation.fail("all array elements matched");
-                                } else { // schema reference
-                                    Match.Type nestedType = macroToMatchType(true, macro); // match each
-                                    int startPos = matchTypeToStartPos(nestedType);
-                                    macro = macro.substring(startPos);
-                                    JsValue jv = context.JS.eval(macro);
-                                    MatchOperation mo = new MatchOperation(context, nestedType.operator(isMatchEachEmptyAllowed()), actual, new Match.Value(jv.getValue()));
-                                    return mo.execute();
-                                }
-                            }
-                        }
-                        return true; // expression within square brackets is ok
+                case ARRAY:
+                    if (!actual.isList()) {
+                        return operation.fail("actual is not an array");
                     }
-                } else { // '#? _ != 0' | '#string' | '#number? _ > 0'
-                    int questionPos = macro.indexOf('?');
-                    String validatorName = null;
-                    // in case of regex we don't want to remove the '?'
-                    if (questionPos != -1 && !macro.startsWith(REGEX)) {
-                        validatorName = macro.substring(0, questionPos);
-                        if (macro.length() > questionPos + 1) {
-                            macro = StringUtils.trimToEmpty(macro.substring(questionPos + 1));
-                        } else {
-                            macro = "";
+                    if (macro.sizeExpr != null) {
+                        List<?> listAct = actual.getValue();
+                        int listSize = listAct.size();
+                        if (!context.JS.evalWith(macro.sizeExpr, listSize, context.root.actual.getValue()).isTrue()) {
+                            return operation.fail("actual array length is " + listSize);
                         }
-                    } else {
-                        validatorName = macro;
-                        macro = "";
                     }
-                    validatorName = StringUtils.trimToNull(validatorName);
-                    if (validatorName != null) {
-                        Match.Validator validator = null;
-                        if (validatorName.startsWith(REGEX)) {
-                            String regex = validatorName.substring(5).trim();
-                            validator = new Match.RegexValidator(regex);
-                        } else {
-                            validator = Match.VALIDATORS.get(validatorName);
-                        }
-                        if (validator != null) {
+                    if (macro.eachMacro != null) {
+                        MatchOperation each = new MatchOperation(context, Match.Type.EACH_EQUALS.operator(isMatchEachEmptyAllowed()), actual, new Match.Value(macro.eachMacro));
+                        each.execute();
+                        return each.pass ? operation.pass() : operation.fail("all array elements matched");
+                    } else if (macro.expression != null) { // schema reference
+                        JsValue schema = context.JS.eval(macro.expression);
+                        MatchOperation each = new MatchOperation(context, macro.nestedType.operator(isMatchEachEmptyAllowed()), actual, new Match.Value(schema.getValue()));
+                        return each.execute();
+                    }
+                    return true; // expression within square brackets is ok
+                case VALIDATOR:
+                    if (macro.validatorName != null) {
+                        if (macro.validator != null) {
                             if (optional && (actual.isNotPresent() || actual.isNull())) {
                                 // pass
                             } else if (!optional && actual.isNotPresent()) {
@@ -266,67 +315,28 @@ public interface MatchOperator {
                                 // the notpresent keyword, ignored or an optional comparison
                                 return expected.isNotPresent() || "#ignore".contentEquals(expected.getAsString());
                             } else {
-                                Match.Result mr = validator.apply(actual);
+                                Match.Result mr = macro.validator.apply(actual);
                                 if (!mr.pass) {
                                     return operation.fail(mr.message);
                                 }
                             }
-                        } else if (!validatorName.startsWith(REGEX)) { // expected is a string that happens to start with "#"
+                        } else if (!macro.validatorName.startsWith(REGEX)) { // expected is a string that happens to start with "#"
                             String actualValue = actual.getValue();
                             // Pre 2515 would only apply this hack to CONTAINS and not CONTAINS_DEEP
                             return isContains()?actualValue.contains(expStr):actualValue.equals(expStr);
                         }
-
                     }
-                    macro = StringUtils.trimToNull(macro);
-                    if (macro != null && questionPos != -1) {
-                        context.JS.put("$", context.root.actual.getValue());
-                        context.JS.put("_", actual.getValue());
-                        JsValue jv = context.JS.eval(macro);
-                        context.JS.bindings.removeMember("$");
-                        context.JS.bindings.removeMember("_");
-                        if (!jv.isTrue()) {
+                    if (macro.predicate != null) {
+                        if (!context.JS.evalWith(macro.predicate, actual.getValue(), context.root.actual.getValue()).isTrue()) {
                             return operation.fail("evaluated to 'false'");
                         }
                     }
-                }
-            }
-            return true; // all ok
-        }
-
-        private static final Pattern UNDERSCORE_PATTERN = Pattern.compile("\\W_\\W|\\W_|_\\W");
-
-        private boolean containsPlaceholderUnderscore(String bracketContents) {
-            Matcher m1 = UNDERSCORE_PATTERN.matcher(bracketContents);
-            while (m1.find()) {
-                return true;
-            }
-            return false;
-        }
-
-
-        private static Match.Type macroToMatchType(boolean each, String macro) {
-            if (macro.startsWith("^^")) {
-                return each ? Match.Type.EACH_CONTAINS_ONLY : Match.Type.CONTAINS_ONLY;
-            } else if (macro.startsWith("^+")) {
-                return each ? Match.Type.EACH_CONTAINS_DEEP : Match.Type.CONTAINS_DEEP;
-            } else if (macro.startsWith("^*")) {
-                return each ? Match.Type.EACH_CONTAINS_ANY : Match.Type.CONTAINS_ANY;
-            } else if (macro.startsWith("^")) {
-                return each ? Match.Type.EACH_CONTAINS : Match.Type.CONTAINS;
-            } else if (macro.startsWith("!^")) {
-                return each ? Match.Type.EACH_NOT_CONTAINS : Match.Type.NOT_CONTAINS;
-            } else if (macro.startsWith("!=")) {
-                return each ? Match.Type.EACH_NOT_EQUALS : Match.Type.NOT_EQUALS;
-            } else {
-                return each ? Match.Type.EACH_EQUALS : Match.Type.EQUALS;
+                    return true;
+                default:
+                    return true; // all ok
             }
         }
 
-        private static int matchTypeToStartPos(Match.Type mt) {
-           return mt.shortcutLength;
-        }
-
         private static BigDecimal toBigDecimal(Object o) {
             if (o instanceof BigDecimal) {
                 return (BigDecimal) o;
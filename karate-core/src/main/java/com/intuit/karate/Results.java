@@ -24,6 +24,7 @@
 package com.intuit.karate;
 
 import com.intuit.karate.core.FeatureResult;
+import com.intuit.karate.core.FeatureSummary;
 import com.intuit.karate.core.ScenarioResult;
 import com.intuit.karate.core.TagResults;
 import com.intuit.karate.core.TimelineResults;
@@ -69,22 +70,22 @@ public class Results {
         AtomicInteger time = new AtomicInteger();
         TimelineResults timeline = new TimelineResults();
         TagResults tags = new TagResults();
-        suite.getFeatureResults().forEach(fr -> {
-            if (!fr.isEmpty()) {
-                timeline.addFeatureResult(fr);
-                tags.addFeatureResult(fr);
-                if (fr.isFailed()) {
+        suite.getFeatureSummaries().forEach(fs -> {
+            if (!fs.isEmpty()) {
+                timeline.addFeatureSummary(fs);
+                tags.addFeatureSummary(fs);
+                if (fs.isFailed()) {
                     ff.incrementAndGet();
                 } else {
                     fp.incrementAndGet();
                 }
-                Long duration = Math.round(fr.getDurationMillis());
+                Long duration = Math.round(fs.getDurationMillis());
                 time.addAndGet(duration.intValue());
-                featureSummary.add(fr.toSummaryJson());
+                featureSummary.add(fs.toSummaryJson());
             }
-            sp.addAndGet(fr.getPassedCount());
-            sf.addAndGet(fr.getFailedCount());
-            errors.addAll(fr.getErrors());
+            sp.addAndGet(fs.getPassedCount());
+            sf.addAndGet(fs.getFailedCount());
+            errors.addAll(fs.getErrors());
         });
         featuresPassed = fp.get();
         featuresFailed = ff.get();
@@ -116,7 +117,7 @@ public class Results {
 
     private void saveStatsJson() {
         String json = JsonUtils.toJson(toKarateJson());
-        File file = new File(suite.reportDir + File.separator + "karate-summary-json.txt");
+        File file = new File(suite.reportDir + File.separator + Constants.KARATE_SUMMARY_JSON);
         FileUtils.writeToFile(file, json);
     }
 
@@ -77,9 +77,17 @@ public class Runner {
 
     // this is called by karate-gatling !
     public static void callAsync(Runner.Builder builder, String path, Map<String, Object> arg, PerfHook perfHook) {
+        callAsync(asyncSuite(builder), FileUtils.parseFeatureAndCallTag(path), arg, perfHook);
+    }
+
+    // config sources, hooks and the http client factory are resolved once here
+    // so the suite can be re-used for every call, e.g. for every gatling iteration
+    public static Suite asyncSuite(Runner.Builder builder) {
         builder.features = Collections.emptyList(); // will skip expensive feature resolution in builder.resolveAll()
-        Suite suite = new Suite(builder);
-        FeatureCall feature = FileUtils.parseFeatureAndCallTag(path);
+        return new Suite(builder);
+    }
+
+    public static void callAsync(Suite suite, FeatureCall feature, Map<String, Object> arg, PerfHook perfHook) {
         FeatureRuntime featureRuntime = FeatureRuntime.of(suite, feature, arg, perfHook);
         featureRuntime.setNext(() -> perfHook.afterFeature(featureRuntime.result));
         perfHook.submit(featureRuntime);
@@ -114,6 +122,8 @@ public class Runner {
         boolean dryRun;
         boolean debugMode;
         boolean failWhenNoScenariosFound;
+        boolean karateConfigOnce;
+        boolean virtualThreads;
         Map<String, String> systemProperties;
         Map<String, Object> callSingleCache;
         Map<String, ScenarioCall.Result> callOnceCache;
@@ -148,6 +158,8 @@ public class Runner {
             b.dryRun = dryRun;
             b.debugMode = debugMode;
             b.failWhenNoScenariosFound = failWhenNoScenariosFound;
+            b.karateConfigOnce = karateConfigOnce;
+            b.virtualThreads = virtualThreads;
             b.systemProperties = systemProperties;
             b.callSingleCache = callSingleCache;
             b.callOnceCache = callOnceCache;
@@ -195,6 +207,7 @@ public class Runner {
                     threadCount = ko.threads;
                 }
                 dryRun = ko.dryRun || dryRun;
+                virtualThreads = ko.virtualThreads || virtualThreads;
             }
             String tempEnv = StringUtils.trimToNull(systemProperties.get(Constants.KARATE_ENV));
             if (tempEnv != null) {
@@ -457,6 +470,21 @@ public class Runner {
             return (T) this;
         }
 
+        // one virtual thread per scenario (java 21 and above), and the number
+        // of threads (see parallel) becomes the max scenarios running at a time
+        public T virtualThreads(boolean value) {
+            virtualThreads = value;
+            return (T) this;
+        }
+
+        // evaluate the config js files only once per suite, and give each
+        // (top-level) scenario a copy of the resulting variables and config,
+        // where a variable passed in the call arg wins over one from config
+        public T karateConfigOnce(boolean value) {
+            karateConfigOnce = value;
+            return (T) this;
+        }
+
         public T callSingleCache(Map<String, Object> value) {
             callSingleCache = value;
             return (T) this;
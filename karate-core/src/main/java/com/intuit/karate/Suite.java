@@ -28,6 +28,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.intuit.karate.core.FeatureCall;
 import com.intuit.karate.core.FeatureResult;
 import com.intuit.karate.core.FeatureRuntime;
+import com.intuit.karate.core.FeatureSummary;
 import com.intuit.karate.core.Scenario;
 import com.intuit.karate.core.ScenarioCall;
 import com.intuit.karate.core.ScenarioResult;
@@ -35,6 +36,7 @@ import com.intuit.karate.core.ScenarioRuntime;
 import com.intuit.karate.core.Step;
 import com.intuit.karate.core.SyncExecutorService;
 import com.intuit.karate.core.Tags;
+import com.intuit.karate.core.VirtualThreadExecutorService;
 import com.intuit.karate.driver.DriverRunner;
 import com.intuit.karate.http.HttpClientFactory;
 import com.intuit.karate.report.ReportUtils;
@@ -45,11 +47,16 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -83,6 +90,7 @@ public class Suite implements Runnable {
     public final List<FeatureCall> features;
     public final List<CompletableFuture> futures;
     public final Set<File> featureResultFiles;
+    private final Map<File, FeatureSummary> featureSummaries;
     public final Collection<RuntimeHook> hooks;
     public final HttpClientFactory clientFactory;
     public final Map<String, String> systemProperties;
@@ -95,12 +103,17 @@ public class Suite implements Runnable {
     public final boolean outputJunitXml;
 
     public final boolean parallel;
+    public final boolean virtualThreads;
     public final ExecutorService scenarioExecutor;
     public final ExecutorService pendingTasks;
+    public final ExecutorService reportExecutor;
 
     public final String karateBase;
     public final String karateConfig;
     public final String karateConfigEnv;
+    public final boolean karateConfigOnce;
+    public final Lock karateConfigLock = new ReentrantLock();
+    private volatile ScenarioCall.Result karateConfigSnapshot;
 
     public final Map<String, Object> callSingleCache;
     public final Map<String, ScenarioCall.Result> callOnceCache;
@@ -153,15 +166,19 @@ public class Suite implements Runnable {
             featuresFound = -1;
             futures = null;
             featureResultFiles = null;
+            featureSummaries = null;
             workingDir = FileUtils.WORKING_DIR;
             buildDir = FileUtils.getBuildDir();
             reportDir = FileUtils.getBuildDir();
             karateBase = null;
             karateConfig = null;
             karateConfigEnv = null;
+            karateConfigOnce = false;
             parallel = false;
+            virtualThreads = false;
             scenarioExecutor = null;
             pendingTasks = null;
+            reportExecutor = null;
             callSingleCache = null;
             callOnceCache = null;
             suiteReports = null;
@@ -189,6 +206,7 @@ public class Suite implements Runnable {
             callOnceCache = rb.callOnceCache;
             suiteReports = rb.suiteReports;
             featureResultFiles = new HashSet();
+            featureSummaries = new HashMap();
             workingDir = rb.workingDir;
             buildDir = rb.buildDir;
             reportDir = rb.reportDir;
@@ -199,16 +217,25 @@ public class Suite implements Runnable {
             } else {
                 karateConfigEnv = null;
             }
+            karateConfigOnce = rb.karateConfigOnce;
             drivers = rb.drivers;
             threadCount = rb.threadCount;
             timeoutMinutes = rb.timeoutMinutes;
             parallel = threadCount > 1;
             if (parallel) {
-                scenarioExecutor = Executors.newFixedThreadPool(threadCount);
+                ExecutorService virtualExecutor = rb.virtualThreads ? VirtualThreadExecutorService.newExecutor(threadCount) : null;
+                if (rb.virtualThreads && virtualExecutor == null) {
+                    logger.warn("virtual threads need java 21 or above, falling back to {} platform threads", threadCount);
+                }
+                virtualThreads = virtualExecutor != null;
+                scenarioExecutor = virtualThreads ? virtualExecutor : Executors.newFixedThreadPool(threadCount);
                 pendingTasks = Executors.newSingleThreadExecutor();
+                reportExecutor = newReportExecutor(threadCount);
             } else {
+                virtualThreads = false;
                 scenarioExecutor = SyncExecutorService.INSTANCE;
                 pendingTasks = SyncExecutorService.INSTANCE;
+                reportExecutor = SyncExecutorService.INSTANCE;
             }
         }
     }
@@ -216,6 +243,7 @@ public class Suite implements Runnable {
     @Override
     public void run() {
         try {
+            Map<String, Number> previousDurations = parallel ? readPreviousDurations() : null;
             if (backupReportDir) {
                 backupReportDirIfExists();
             }
@@ -236,6 +264,9 @@ public class Suite implements Runnable {
             if (featuresFound > 1) {
                 logger.debug("waiting for {} features to complete", featuresFound);
             }
+            if (previousDurations != null && !previousDurations.isEmpty()) {
+                featureRuntimes = sortLongestFirst(featureRuntimes, previousDurations);
+            }
             featureRuntimes.forEach(pendingTasks::submit);
             CompletableFuture[] futuresArray = futures.toArray(new CompletableFuture[futures.size()]);
             if (timeoutMinutes > 0) {
@@ -249,10 +280,78 @@ public class Suite implements Runnable {
         } finally {
             scenarioExecutor.shutdownNow();
             pendingTasks.shutdownNow();
+            awaitReports();
             hooks.forEach(h -> h.afterSuite(this));
         }
     }
 
+    // a few threads and a bounded queue, when full the feature that just
+    // completed renders its own reports, which slows down the producers
+    // and so does a feature that completes after shutdown (e.g. retryScenario())
+    // unlike CallerRunsPolicy, which would silently discard the task then
+    private static ExecutorService newReportExecutor(int threadCount) {
+        int threads = Math.max(1, threadCount / 4);
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue(threadCount * 2), r -> {
+                    Thread thread = new Thread(r, "karate-report-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, (task, executor) -> task.run());
+    }
+
+    private void awaitReports() {
+        if (!parallel) {
+            return;
+        }
+        reportExecutor.shutdown();
+        try {
+            reportExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            logger.warn("interrupted while waiting for reports to be written");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public ScenarioCall.Result getKarateConfigSnapshot() {
+        return karateConfigSnapshot;
+    }
+
+    public void setKarateConfigSnapshot(ScenarioCall.Result snapshot) {
+        karateConfigSnapshot = snapshot;
+    }
+
+    // from the summary of the last run (if any) so that long features can be started first
+    private Map<String, Number> readPreviousDurations() {
+        File file = new File(reportDir + File.separator + Constants.KARATE_SUMMARY_JSON);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            Map<String, Object> summary = toKarateJson(file);
+            List<Map<String, Object>> list = (List) summary.get("featureSummary");
+            Map<String, Number> map = new HashMap(list.size());
+            for (Map<String, Object> fs : list) {
+                map.put((String) fs.get("relativePath"), (Number) fs.get("durationMillis"));
+            }
+            return map;
+        } catch (Exception e) {
+            logger.warn("unable to read previous durations from: {} - {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    // features that did not run the last time go first, because they could be the longest
+    // and then longest first, which reduces the time spent waiting for the last few
+    private static List<FeatureRuntime> sortLongestFirst(List<FeatureRuntime> list, Map<String, Number> durations) {
+        List<FeatureRuntime> sorted = new ArrayList(list);
+        sorted.sort(Comparator.comparingDouble((FeatureRuntime fr) -> {
+            Number duration = durations.get(fr.featureCall.feature.getResource().getRelativePath());
+            return duration == null ? Double.MAX_VALUE : duration.doubleValue();
+        }).reversed());
+        return sorted;
+    }
+
     public void abort() {
         abort.set(true);
     }
@@ -262,33 +361,40 @@ public class Suite implements Runnable {
     }
 
     public void saveFeatureResults(FeatureResult fr) {
-        File file = ReportUtils.saveKarateJson(reportDir, fr, null);
-        synchronized (featureResultFiles) {
-            featureResultFiles.add(file);
-        }
-        if (outputHtmlReport) {
-            suiteReports.featureReport(this, fr).render();
-        }
-        if (outputCucumberJson) {
-            ReportUtils.saveCucumberJson(reportDir, fr, null);
-        }
-        if (outputJunitXml) {
-            ReportUtils.saveJunitXml(reportDir, fr, null);
+        reportExecutor.execute(() -> writeFeatureReports(fr));
+    }
+
+    private void writeFeatureReports(FeatureResult fr) {
+        try { // edge case that reports are not writable
+            File file = ReportUtils.saveKarateJson(reportDir, fr, null);
+            // only a file that was written can be read back for the summary report
+            FeatureSummary summary = FeatureSummary.of(fr);
+            synchronized (featureResultFiles) {
+                featureResultFiles.add(file);
+                featureSummaries.put(file, summary);
+            }
+            if (outputHtmlReport) {
+                suiteReports.featureReport(this, fr).render();
+            }
+            if (outputCucumberJson) {
+                ReportUtils.saveCucumberJson(reportDir, fr, null);
+            }
+            if (outputJunitXml) {
+                ReportUtils.saveJunitXml(reportDir, fr, null);
+            }
+            fr.deleteStepLogFiles(); // the log is in the reports now, don't wait for the jvm to exit
+        } catch (Throwable t) {
+            // spilled step logs are kept (until the jvm exits) so that they are not lost
+            logger.error("<<error>> unable to write report file(s): {} - {}", fr.getFeature(), t + "");
         }
         fr.printStats();
     }
 
     private void onFeatureDone(FeatureResult fr, int index) {
         if (fr.getScenarioCount() > 0) { // possible that zero scenarios matched tags
-            try { // edge case that reports are not writable     
-                saveFeatureResults(fr);
-                String status = fr.isFailed() ? "fail" : "pass";
-                logger.info("<<{}>> feature {} of {} ({} remaining) {}", status, index, featuresFound, getFeaturesRemaining() - 1, fr.getFeature());
-            } catch (Throwable t) {
-                logger.error("<<error>> unable to write report file(s): {} - {}", fr.getFeature(), t + "");
-                fr.printStats();
-                return; // don't attempt to save progress that might fail as well
-            }
+            saveFeatureResults(fr);
+            String status = fr.isFailed() ? "fail" : "pass";
+            logger.info("<<{}>> feature {} of {} ({} remaining) {}", status, index, featuresFound, getFeaturesRemaining() - 1, fr.getFeature());
         } else {
             skippedCount++;
             if (logger.isTraceEnabled()) {
@@ -318,6 +424,19 @@ public class Suite implements Runnable {
                 .map(file -> FeatureResult.fromKarateJson(workingDir, toKarateJson(file)));
     }
 
+    // in the same order as getFeatureResults() but without re-reading the report files
+    public List<FeatureSummary> getFeatureSummaries() {
+        synchronized (featureResultFiles) {
+            return featureResultFiles.stream()
+                    .sorted()
+                    .map(file -> { // re-read only if the file was added from outside
+                        FeatureSummary summary = featureSummaries.get(file);
+                        return summary == null ? FeatureSummary.of(FeatureResult.fromKarateJson(workingDir, toKarateJson(file))) : summary;
+                    })
+                    .collect(Collectors.toList());
+        }
+    }
+
     public Stream<ScenarioResult> getScenarioResults() {
         return getFeatureResults().flatMap(fr -> fr.getScenarioResults().stream());
     }
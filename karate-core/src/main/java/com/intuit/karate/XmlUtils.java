@@ -35,6 +35,8 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.transform.OutputKeys;
@@ -67,6 +69,74 @@ public class XmlUtils {
         // only static methods
     }
 
+    // jaxp factory look-up is slow, and builders and compiled xpath are not
+    // thread-safe, so they are cached per thread
+    private static final int XPATH_CACHE_MAX_SIZE = 256;
+
+    private static class ThreadCache {
+
+        final DocumentBuilder[] builders = new DocumentBuilder[2]; // [namespace aware]
+        final XPath xpath = XPathFactory.newInstance().newXPath();
+        final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+        final Map<String, XPathExpression> expressions = new LinkedHashMap<String, XPathExpression>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+                return size() > XPATH_CACHE_MAX_SIZE;
+            }
+        };
+
+        DocumentBuilder getBuilder(boolean namespaceAware) throws Exception {
+            int index = namespaceAware ? 1 : 0;
+            DocumentBuilder builder = builders[index];
+            if (builder == null) {
+                DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+                factory.setNamespaceAware(namespaceAware);
+                factory.setIgnoringElementContentWhitespace(false);
+                builder = factory.newDocumentBuilder();
+                builders[index] = builder;
+            } else {
+                builder.reset();
+            }
+            return builder;
+        }
+
+    }
+
+    private static final ThreadLocal<ThreadCache> THREAD_CACHE = new ThreadLocal();
+
+    // a virtual thread runs a single task, so the cache of a finished one is kept for the next (see release())
+    private static final int CACHE_POOL_MAX_SIZE = 256;
+    private static final BlockingQueue<ThreadCache> CACHE_POOL = new ArrayBlockingQueue(CACHE_POOL_MAX_SIZE);
+
+    private static ThreadCache cache() {
+        ThreadCache cache = THREAD_CACHE.get();
+        if (cache == null) {
+            cache = CACHE_POOL.poll();
+            if (cache == null) {
+                cache = new ThreadCache();
+            }
+            THREAD_CACHE.set(cache);
+        }
+        return cache;
+    }
+
+    // for a thread that is about to end, the cache (if any) can be re-used by another thread
+    public static void release() {
+        ThreadCache cache = THREAD_CACHE.get();
+        if (cache != null) {
+            THREAD_CACHE.remove();
+            CACHE_POOL.offer(cache);
+        }
+    }
+
+    static int getXpathCacheSize() {
+        return cache().expressions.size();
+    }
+
+    static int getCachePoolSize() {
+        return CACHE_POOL.size();
+    }
+
     public static String toString(Node node) {
         return toString(node, false);
     }
@@ -75,7 +145,7 @@ public class XmlUtils {
         DOMSource domSource = new DOMSource(node);
         StringWriter writer = new StringWriter();
         StreamResult result = new StreamResult(writer);
-        TransformerFactory tf = TransformerFactory.newInstance();
+        TransformerFactory tf = cache().transformerFactory;
         try {
             Transformer transformer = tf.newTransformer();
             transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
@@ -109,11 +179,8 @@ public class XmlUtils {
     }
 
     public static Document toXmlDoc(String xml, boolean namespaceAware) {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        factory.setNamespaceAware(namespaceAware);
-        factory.setIgnoringElementContentWhitespace(false);
         try {
-            DocumentBuilder builder = factory.newDocumentBuilder();
+            DocumentBuilder builder = cache().getBuilder(namespaceAware);
             DtdEntityResolver dtdEntityResolver = new DtdEntityResolver();
             builder.setEntityResolver(dtdEntityResolver);
             InputStream is = FileUtils.toInputStream(xml);
@@ -131,13 +198,18 @@ public class XmlUtils {
     }
 
     private static XPathExpression compile(String path) {
-        XPathFactory xPathfactory = XPathFactory.newInstance();
-        XPath xpath = xPathfactory.newXPath();
+        ThreadCache cache = cache();
+        XPathExpression expr = cache.expressions.get(path);
+        if (expr != null) {
+            return expr;
+        }
         try {
-            return xpath.compile(path);
+            expr = cache.xpath.compile(path);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
+        cache.expressions.put(path, expr);
+        return expr;
     }
 
     public static NodeList getNodeListByPath(Node node, String path) {
@@ -420,10 +492,9 @@ public class XmlUtils {
     }
 
     public static Document newDocument() {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
         DocumentBuilder builder;
         try {
-            builder = factory.newDocumentBuilder();
+            builder = cache().getBuilder(false);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -454,6 +525,18 @@ public class XmlUtils {
         return doc;
     }
 
+    // structural copy, avoids converting to a string and parsing it again
+    public static Document copy(Node node) {
+        switch (node.getNodeType()) {
+            case Node.DOCUMENT_NODE:
+                return (Document) node.cloneNode(true);
+            case Node.ELEMENT_NODE:
+                return toNewDocument(node);
+            default:
+                return toXmlDoc(toString(node));
+        }
+    }
+
     public static Document fromJavaObject(Object o) {
         return fromObject("root", Json.of(o).value()); // keep it simple for people to write generic xpath starting with /root
     }
@@ -0,0 +1,138 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2022 Karate Labs Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.core;
+
+import com.intuit.karate.Logger;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * per-key "single flight" for the callonce and karate.callSingle() caches,
+ * only one thread computes a given key, others wait only for that key and
+ * threads that want a different key are never blocked
+ *
+ * the caches are plain maps that can be shared across suites (e.g. gatling)
+ * so they are only locked for the get and put, and computations in flight
+ * are tracked separately, keyed by the identity of the cache
+ */
+class CallCache {
+
+    private CallCache() {
+        // only static methods
+    }
+
+    private static final Map<Key, CompletableFuture> IN_FLIGHT = new ConcurrentHashMap();
+
+    private static class Key {
+
+        final Map cache;
+        final String name;
+
+        Key(Map cache, String name) {
+            this.cache = cache;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return cache == other.cache && Objects.equals(name, other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(cache) + Objects.hashCode(name);
+        }
+
+    }
+
+    private static final Object MISS = new Object();
+
+    // a call can return null, which is cached like any other result
+    private static Object lookup(Map cache, String key) {
+        synchronized (cache) {
+            return cache.containsKey(key) ? cache.get(key) : MISS;
+        }
+    }
+
+    static <T> T getOrCall(Map<String, T> cache, String key, boolean useCached, Supplier<T> fun, Logger logger, String type) {
+        T result;
+        if (useCached) {
+            Object cached = lookup(cache, key);
+            if (cached != MISS) {
+                logger.trace("{} cache hit: {}", type, key);
+                return (T) cached;
+            }
+        }
+        Key flightKey = new Key(cache, key);
+        CompletableFuture<T> future = new CompletableFuture();
+        CompletableFuture<T> existing = IN_FLIGHT.putIfAbsent(flightKey, future);
+        if (existing != null) {
+            long startTime = System.currentTimeMillis();
+            logger.trace("{} waiting for lock: {}", type, key);
+            try {
+                result = existing.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof RuntimeException ? (RuntimeException) cause : e;
+            } finally {
+                long elapsed = System.currentTimeMillis() - startTime;
+                logger.warn("this thread waited {} milliseconds for {} lock: {}", elapsed, type, key);
+            }
+            return result;
+        }
+        try {
+            if (useCached) {
+                Object cached = lookup(cache, key); // retry, another thread may have just completed
+                if (cached != MISS) {
+                    future.complete((T) cached);
+                    return (T) cached;
+                }
+            }
+            // this thread is the 'winner'
+            logger.info(">> lock acquired, begin {}: {}", type, key);
+            result = fun.get();
+            synchronized (cache) {
+                cache.put(key, result);
+            }
+            future.complete(result);
+            logger.info("<< lock released, cached {}: {}", type, key);
+            return result;
+        } catch (Throwable t) {
+            // not cached, but all threads waiting right now will fail the same way
+            future.completeExceptionally(t);
+            throw t;
+        } finally {
+            IN_FLIGHT.remove(flightKey, future);
+        }
+    }
+
+}
@@ -24,6 +24,7 @@
 package com.intuit.karate.core;
 
 import com.intuit.karate.FileUtils;
+import com.intuit.karate.Match;
 import com.intuit.karate.StringUtils;
 import com.intuit.karate.driver.DockerTarget;
 import com.intuit.karate.driver.Target;
@@ -84,10 +85,13 @@ public class Config {
     private boolean corsEnabled = false;
     private boolean logPrettyRequest;
     private boolean logPrettyResponse;
+    private int logBodyMaxSize = -1; // no limit
     private boolean printEnabled = true;
     private boolean pauseIfNotPerf = false;
     private boolean abortedStepsShouldPass = false;
     private boolean matchEachEmptyAllowed = false;
+    private int matchEachMaxFailures = Match.EACH_MAX_FAILURES;
+    private int matchEachParallelThreshold = Match.EACH_PARALLEL_THRESHOLD;
     private Target driverTarget;
     private Map<String, Map<String, Object>> customOptions = new HashMap();
     private HttpLogModifier logModifier;
@@ -125,6 +129,13 @@ public class Config {
     private String ntlmDomain;
     private String ntlmWorkstation;
 
+    // http connection pool
+    private boolean connectionPoolEnabled = true;
+    private int connectionPoolMaxTotal = 200;
+    private int connectionPoolMaxPerRoute = 50;
+    private int connectionPoolIdleTimeout = 30000;
+    private int connectionPoolTimeToLive = -1;
+
     public Config() {
         // zero arg constructor
     }
@@ -170,6 +181,9 @@ public class Config {
             case "logPrettyRequest":
                 logPrettyRequest = value.isTrue();
                 return false;
+            case "logBodyMaxSize":
+                logBodyMaxSize = value.isNull() ? -1 : value.getAsInt();
+                return false;
             case "printEnabled":
                 printEnabled = value.isTrue();
                 return false;
@@ -248,6 +262,12 @@ public class Config {
             case "matchEachEmptyAllowed":
                 matchEachEmptyAllowed = value.getValue();
                 return false;
+            case "matchEachMaxFailures":
+                matchEachMaxFailures = value.isNull() ? Match.EACH_MAX_FAILURES : value.getAsInt();
+                return false;
+            case "matchEachParallelThreshold": // zero or less to disable
+                matchEachParallelThreshold = value.isNull() ? Match.EACH_PARALLEL_THRESHOLD : value.getAsInt();
+                return false;
             case "continueOnStepFailure":
                 continueOnStepFailureMethods.clear(); // clears previous configuration - in case someone is trying to chain these and forgets resetting the previous one
                 boolean enableContinueOnStepFailureFeature = false;
@@ -339,6 +359,18 @@ public class Config {
                     ntlmWorkstation = (String) map.get("workstation");
                 }
                 return true;
+            case "connectionPool":
+                if (value.isMap()) {
+                    connectionPoolEnabled = true;
+                    Map<String, Object> map = value.getValue();
+                    connectionPoolMaxTotal = get(map, "maxTotal", connectionPoolMaxTotal);
+                    connectionPoolMaxPerRoute = get(map, "maxPerRoute", connectionPoolMaxPerRoute);
+                    connectionPoolIdleTimeout = get(map, "idleTimeout", connectionPoolIdleTimeout);
+                    connectionPoolTimeToLive = get(map, "timeToLive", connectionPoolTimeToLive);
+                } else {
+                    connectionPoolEnabled = value.isTrue();
+                }
+                return true;
             default:
                 throw new RuntimeException("unexpected 'configure' key: '" + key + "'");
         }
@@ -370,6 +402,7 @@ public class Config {
         corsEnabled = parent.corsEnabled;
         logPrettyRequest = parent.logPrettyRequest;
         logPrettyResponse = parent.logPrettyResponse;
+        logBodyMaxSize = parent.logBodyMaxSize;
         printEnabled = parent.printEnabled;
         driverTarget = parent.driverTarget;
         customOptions = parent.customOptions;
@@ -393,12 +426,19 @@ public class Config {
         abortSuiteOnFailure = parent.abortSuiteOnFailure;
         imageComparisonOptions = parent.imageComparisonOptions;
         matchEachEmptyAllowed = parent.matchEachEmptyAllowed;
+        matchEachMaxFailures = parent.matchEachMaxFailures;
+        matchEachParallelThreshold = parent.matchEachParallelThreshold;
         ntlmEnabled = parent.ntlmEnabled;
         httpRetryEnabled = parent.httpRetryEnabled;
         ntlmUsername = parent.ntlmUsername;
         ntlmPassword = parent.ntlmPassword;
         ntlmDomain = parent.ntlmDomain;
         ntlmWorkstation = parent.ntlmWorkstation;
+        connectionPoolEnabled = parent.connectionPoolEnabled;
+        connectionPoolMaxTotal = parent.connectionPoolMaxTotal;
+        connectionPoolMaxPerRoute = parent.connectionPoolMaxPerRoute;
+        connectionPoolIdleTimeout = parent.connectionPoolIdleTimeout;
+        connectionPoolTimeToLive = parent.connectionPoolTimeToLive;
     }
 
     public void setUrl(String url) {
@@ -517,6 +557,10 @@ public class Config {
         return logPrettyRequest;
     }
 
+    public int getLogBodyMaxSize() {
+        return logBodyMaxSize;
+    }
+
     public boolean isLogPrettyResponse() {
         return logPrettyResponse;
     }
@@ -649,6 +693,14 @@ public class Config {
 
     public boolean isMatchEachEmptyAllowed() {
         return matchEachEmptyAllowed;
+    }
+
+    public int getMatchEachMaxFailures() {
+        return matchEachMaxFailures;
+    }
+
+    public int getMatchEachParallelThreshold() {
+        return matchEachParallelThreshold;
     }        
 
     public boolean isNtlmEnabled() {
@@ -695,4 +747,25 @@ public class Config {
     {
         this.httpRetryEnabled = httpRetryEnabled;
     }
+
+    public boolean isConnectionPoolEnabled() {
+        return connectionPoolEnabled;
+    }
+
+    public int getConnectionPoolMaxTotal() {
+        return connectionPoolMaxTotal;
+    }
+
+    public int getConnectionPoolMaxPerRoute() {
+        return connectionPoolMaxPerRoute;
+    }
+
+    public int getConnectionPoolIdleTimeout() {
+        return connectionPoolIdleTimeout;
+    }
+
+    public int getConnectionPoolTimeToLive() {
+        return connectionPoolTimeToLive;
+    }
+
 }
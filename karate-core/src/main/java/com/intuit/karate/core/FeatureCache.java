@@ -0,0 +1,141 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2022 Karate Labs Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.core;
+
+import com.intuit.karate.resource.FileResource;
+import com.intuit.karate.resource.JarResource;
+import com.intuit.karate.resource.Resource;
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * bounded LRU cache of parsed feature files, keyed by resource URI and
+ * invalidated when the last-modified time (or content) changes
+ *
+ * what is cached is the parse tree, and every read walks it to build a new
+ * Feature instance, so callers can never see each other's changes
+ */
+public class FeatureCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeatureCache.class);
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    public static final FeatureCache INSTANCE = new FeatureCache(DEFAULT_MAX_SIZE);
+
+    private final Map<String, Entry> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    static class Entry {
+
+        final long version;
+        final FeatureParser.ParseResult result;
+
+        Entry(long version, FeatureParser.ParseResult result) {
+            this.version = version;
+            this.result = result;
+        }
+
+    }
+
+    public FeatureCache(int maxSize) {
+        cache = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    private static long getVersion(Resource resource) {
+        if (resource instanceof FileResource) {
+            File file = resource.getFile();
+            return file.lastModified() * 31 + file.length();
+        } else if (resource instanceof JarResource) {
+            return ((JarResource) resource).getContentHash() & 0xffffffffL;
+        } else { // e.g. in-memory resources, which can have the same uri as a file
+            return -1;
+        }
+    }
+
+    FeatureParser.ParseResult get(Resource resource) {
+        long version = getVersion(resource);
+        if (version == -1) {
+            return FeatureParser.parse(resource.getStream());
+        }
+        String key = resource.getUri().toString();
+        Entry entry;
+        synchronized (cache) {
+            entry = cache.get(key);
+        }
+        if (entry != null && entry.version == version) {
+            hits.increment();
+            return entry.result;
+        }
+        misses.increment();
+        FeatureParser.ParseResult result = FeatureParser.parse(resource.getStream());
+        if (!result.isFail()) {
+            synchronized (cache) {
+                cache.put(key, new Entry(version, result));
+            }
+        }
+        if (logger.isTraceEnabled()) {
+            logger.trace("feature cache miss: {}", key);
+        }
+        return result;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "size: " + size() + ", hits: " + getHitCount() + ", misses: " + getMissCount();
+    }
+
+}
@@ -45,12 +45,30 @@ public class FeatureParser extends KarateParserBaseListener {
     
     private static final Logger logger = LoggerFactory.getLogger(FeatureParser.class);
     
-    private final ParserErrorListener errorListener = new ParserErrorListener();
     private final Feature feature;
     private final CommonTokenStream tokenStream;
-    
-    private FeatureParser(Feature feature, InputStream is) {
-        this.feature = feature;
+
+    // lexing and parsing is the expensive part, the resulting tree is never
+    // mutated, so it can be cached and walked again to build a fresh feature
+    static class ParseResult {
+
+        final RuleContext tree;
+        final CommonTokenStream tokenStream;
+        final String errorMessage;
+
+        ParseResult(RuleContext tree, CommonTokenStream tokenStream, String errorMessage) {
+            this.tree = tree;
+            this.tokenStream = tokenStream;
+            this.errorMessage = errorMessage;
+        }
+
+        boolean isFail() {
+            return errorMessage != null;
+        }
+
+    }
+
+    static ParseResult parse(InputStream is) {
         CharStream stream;
         try {
             stream = CharStreams.fromStream(is, StandardCharsets.UTF_8);
@@ -58,23 +76,30 @@ public class FeatureParser extends KarateParserBaseListener {
             throw new RuntimeException(e);
         }
         KarateLexer lexer = new KarateLexer(stream);
-        tokenStream = new CommonTokenStream(lexer);
+        CommonTokenStream tokenStream = new CommonTokenStream(lexer);
         KarateParser parser = new KarateParser(tokenStream);
+        ParserErrorListener errorListener = new ParserErrorListener();
         parser.addErrorListener(errorListener);
         RuleContext tree = parser.feature();
-        ParseTreeWalker walker = new ParseTreeWalker();
-        walker.walk(this, tree);
+        return new ParseResult(tree, tokenStream, errorListener.getMessage());
     }
-    
+
+    private FeatureParser(Feature feature, CommonTokenStream tokenStream) {
+        this.feature = feature;
+        this.tokenStream = tokenStream;
+    }
+
     protected static void parse(Feature feature) {
-        FeatureParser fp = new FeatureParser(feature, feature.getResource().getStream());
-        if (fp.errorListener.isFail()) {
-            String errorMessage = fp.errorListener.getMessage();
-            logger.error("not a valid feature file: {} - {}", feature.getResource().getRelativePath(), errorMessage);
-            throw new RuntimeException(errorMessage);
+        ParseResult pr = FeatureCache.INSTANCE.get(feature.getResource());
+        if (pr.isFail()) {
+            logger.error("not a valid feature file: {} - {}", feature.getResource().getRelativePath(), pr.errorMessage);
+            throw new RuntimeException(pr.errorMessage);
         }
+        FeatureParser fp = new FeatureParser(feature, pr.tokenStream);
+        ParseTreeWalker walker = new ParseTreeWalker();
+        walker.walk(fp, pr.tree);
     }
-    
+
     private static int getActualLine(TerminalNode node) {
         int count = 0;
         for (char c : node.getText().toCharArray()) {
@@ -131,7 +131,8 @@ public class FeatureResult {
         return map;
     }
 
-    public Map<String, Object> toKarateJson() {
+    // everything except the scenario results, which can be streamed one by one
+    public Map<String, Object> toKarateJsonHeader() {
         Map<String, Object> map = new HashMap<>();
         // these first few are only for the ease of reports
         // note that they are not involved in the reverse fromKarateJson()
@@ -148,11 +149,6 @@ public class FeatureResult {
         }
         map.put("resultDate", resultDate);
         map.put("prefixedPath", feature.getResource().getPrefixedPath());
-        List<Map<String, Object>> list = new ArrayList<>(scenarioResults.size());
-        map.put("scenarioResults", list);
-        for (ScenarioResult sr : scenarioResults) {
-            list.add(sr.toKarateJson());
-        }
         if (callArg != null) {
             String json = JsonUtils.toJsonSafe(callArg, false);
             map.put("callArg", JsonUtils.fromJson(json));
@@ -162,7 +158,17 @@ public class FeatureResult {
         return map;
     }
 
-    public Map<String, Object> toCucumberJson() {
+    public Map<String, Object> toKarateJson() {
+        Map<String, Object> map = toKarateJsonHeader();
+        List<Map<String, Object>> list = new ArrayList<>(scenarioResults.size());
+        map.put("scenarioResults", list);
+        for (ScenarioResult sr : scenarioResults) {
+            list.add(sr.toKarateJson());
+        }
+        return map;
+    }
+
+    public Map<String, Object> toCucumberJsonHeader() {
         Map<String, Object> map = new HashMap<>();
         map.put("keyword", Feature.KEYWORD);
         map.put("line", feature.getLine());
@@ -177,14 +183,15 @@ public class FeatureResult {
         if (feature.getTags() != null) {
             map.put("tags", ScenarioResult.tagsToCucumberJson(feature.getTags()));
         }
+        return map;
+    }
+
+    public Map<String, Object> toCucumberJson() {
+        Map<String, Object> map = toCucumberJsonHeader();
         List<Map<String, Object>> list = new ArrayList<>(scenarioResults.size());
         map.put("elements", list);
         for (ScenarioResult sr : scenarioResults) {
-            Map<String, Object> backgroundMap = sr.backgroundToCucumberJson();
-            if (backgroundMap != null) {
-                list.add(backgroundMap);
-            }
-            list.add(sr.toCucumberJson());
+            list.addAll(sr.toCucumberJsonElements());
         }
         return map;
     }
@@ -316,6 +323,18 @@ public class FeatureResult {
         return config;
     }
 
+    // the reports have been written, see StepResult.deleteStepLogFile()
+    public void deleteStepLogFiles() {
+        for (ScenarioResult sr : scenarioResults) {
+            for (StepResult stepResult : sr.getStepResults()) {
+                stepResult.deleteStepLogFile();
+                if (stepResult.getCallResults() != null) {
+                    stepResult.getCallResults().forEach(FeatureResult::deleteStepLogFiles);
+                }
+            }
+        }
+    }
+
     public void sortScenarioResults() {
         Collections.sort(scenarioResults);
     }
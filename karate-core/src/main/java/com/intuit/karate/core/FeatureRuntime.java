@@ -55,7 +55,8 @@ public class FeatureRuntime implements Runnable {
 
     protected ScenarioResult setupResult;
 
-    private ScenarioEngine mockEngine;
+    // per thread, because a mock can handle requests concurrently
+    private final ThreadLocal<ScenarioEngine> mockEngine = new ThreadLocal();
 
     private final ParallelProcessor<ScenarioRuntime> processor;
 
@@ -77,11 +78,11 @@ public class FeatureRuntime implements Runnable {
     }
 
     public void setMockEngine(ScenarioEngine mockEngine) {
-        this.mockEngine = mockEngine;
+        this.mockEngine.set(mockEngine);
     }
 
     public ScenarioEngine getMockEngine() {
-        return mockEngine;
+        return mockEngine.get();
     }
 
     public static FeatureRuntime forTempUse(HttpClientFactory hcf) {
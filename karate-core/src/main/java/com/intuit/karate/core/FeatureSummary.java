@@ -0,0 +1,133 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2022 Karate Labs Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.core;
+
+import com.intuit.karate.report.ReportUtils;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * the little that the suite level reports need from a feature result, kept in
+ * memory so that the (possibly large) feature results need not be re-read from
+ * the report files at the end of a run
+ */
+public class FeatureSummary {
+
+    private final Map<String, Object> summaryJson;
+    private final List<ScenarioSummary> scenarios;
+    private final List<String> errors;
+    private final double durationMillis;
+
+    public static class ScenarioSummary {
+
+        public final String executorName;
+        public final String content;
+        public final String name;
+        public final long startTime;
+        public final long endTime;
+        public final boolean failed;
+        public final List<String> tagKeys;
+
+        ScenarioSummary(ScenarioResult sr) {
+            Scenario s = sr.getScenario();
+            executorName = sr.getExecutorName();
+            content = s.getFeature().getResource().getFileNameWithoutExtension() + s.getRefId();
+            name = s.getName();
+            startTime = sr.getStartTime();
+            endTime = sr.getEndTime();
+            failed = sr.isFailed();
+            tagKeys = new ArrayList(s.getTagsEffective().getTagKeys());
+        }
+
+    }
+
+    private FeatureSummary(FeatureResult fr) {
+        List<ScenarioSummary> list = new ArrayList(fr.getScenarioCount());
+        List<String> errorList = new ArrayList();
+        long durationNanos = 0;
+        for (ScenarioResult sr : fr.getScenarioResults()) {
+            if (sr.getStepResults().isEmpty()) { // same as what a re-read from json would see
+                continue;
+            }
+            list.add(new ScenarioSummary(sr));
+            if (sr.isFailed()) {
+                errorList.add(sr.getErrorMessage());
+            }
+            durationNanos += sr.getDurationNanos();
+        }
+        scenarios = Collections.unmodifiableList(list);
+        errors = Collections.unmodifiableList(errorList);
+        durationMillis = ReportUtils.nanosToMillis(durationNanos);
+        Map<String, Object> map = fr.toSummaryJson();
+        map.put("failed", isFailed());
+        map.put("durationMillis", durationMillis);
+        map.put("passedCount", getPassedCount());
+        map.put("failedCount", getFailedCount());
+        map.put("scenarioCount", getScenarioCount());
+        summaryJson = map;
+    }
+
+    public static FeatureSummary of(FeatureResult fr) {
+        return new FeatureSummary(fr);
+    }
+
+    public Map<String, Object> toSummaryJson() {
+        return summaryJson;
+    }
+
+    public List<ScenarioSummary> getScenarios() {
+        return scenarios;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public double getDurationMillis() {
+        return durationMillis;
+    }
+
+    public boolean isEmpty() {
+        return scenarios.isEmpty();
+    }
+
+    public int getScenarioCount() {
+        return scenarios.size();
+    }
+
+    public int getFailedCount() {
+        return errors.size();
+    }
+
+    public int getPassedCount() {
+        return getScenarioCount() - getFailedCount();
+    }
+
+    public boolean isFailed() {
+        return !errors.isEmpty();
+    }
+
+}
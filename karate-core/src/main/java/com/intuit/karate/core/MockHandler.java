@@ -35,11 +35,13 @@ import com.intuit.karate.http.Request;
 import com.intuit.karate.http.ResourceType;
 import com.intuit.karate.http.Response;
 import com.intuit.karate.http.ServerHandler;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -47,6 +49,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * by default requests are handled one at a time, in concurrent mode each
+ * request runs on the server thread that received it, with its own engine and
+ * js context, starting from a snapshot of the variables shared by all requests
+ *
+ * when the request completes, only the variables it (re)defined are written
+ * back, one atomic put per variable, so a request never rolls back what another
+ * request did in the meantime - but two requests that update the same variable
+ * race, and maps or lists shared by reference can be mutated by many requests
+ *
+ * so stateful mocks must use karate.lock(name, fn) to read-modify-write, within
+ * which the variables are refreshed before and published after fn is called
  *
  * @author pthomas3
  */
@@ -71,7 +84,9 @@ public class MockHandler implements ServerHandler {
     private static final String BODY_PATH = "bodyPath";
 
     private final LinkedHashMap<Feature, ScenarioRuntime> scenarioRuntimes = new LinkedHashMap<>(); // feature + holds global config and vars
-    private final Map<String, Variable> globals = new HashMap<>();
+    private final Map<Feature, MockRoute.Table> routeTables = new LinkedHashMap();
+    private final Map<String, Variable> globals;
+    private final boolean concurrent;
     private boolean corsEnabled;
 
     protected static final ThreadLocal<Request> LOCAL_REQUEST = new ThreadLocal<>();
@@ -92,14 +107,21 @@ public class MockHandler implements ServerHandler {
     }
 
     public MockHandler(String prefix, List<Feature> features, Map<String, Object> args, MockInterceptor interceptor) {
+        this(prefix, features, args, interceptor, false);
+    }
+
+    public MockHandler(String prefix, List<Feature> features, Map<String, Object> args, MockInterceptor interceptor, boolean concurrent) {
         this.prefix = "/".equals(prefix) ? null : prefix;
         this.mockInterceptor = interceptor;
+        this.concurrent = concurrent;
+        globals = concurrent ? new ConcurrentHashMap() : new HashMap();
         features.forEach(feature -> {
             ScenarioRuntime runtime = initRuntime(feature, args);
             corsEnabled = corsEnabled || runtime.engine.getConfig().isCorsEnabled();
             globals.putAll(runtime.engine.shallowCloneVariables());
             runtime.logger.info("mock server initialized: {}", feature);
-            scenarioRuntimes.put(feature, runtime);            
+            scenarioRuntimes.put(feature, runtime);
+            routeTables.put(feature, new MockRoute.Table(feature));
         });
     }
     
@@ -113,6 +135,13 @@ public class MockHandler implements ServerHandler {
         return null;
     }
 
+    // per scenario, how often it matched and how long routing took
+    public List<Map<String, Object>> getRouteStats() {
+        List<Map<String, Object>> list = new ArrayList();
+        routeTables.values().forEach(table -> table.routes.forEach(route -> list.add(route.getStats())));
+        return list;
+    }
+
     private ScenarioRuntime initRuntime(Feature feature, Map<String, Object> args) {
         FeatureRuntime featureRuntime = FeatureRuntime.of(Suite.forTempUse(HttpClientFactory.DEFAULT), new FeatureCall(feature), args);
         FeatureSection section = new FeatureSection();
@@ -154,7 +183,26 @@ public class MockHandler implements ServerHandler {
     private static final String ALLOWED_METHODS = "GET, HEAD, POST, PUT, DELETE, PATCH";
 
     @Override
-    public synchronized Response handle(Request req) { // note the [synchronized]
+    public Response handle(Request req) {
+        // scoped to this request, restored in case a mock is called from within another
+        Request prevRequest = LOCAL_REQUEST.get();
+        try {
+            if (concurrent) {
+                return handleRequest(req);
+            }
+            synchronized (this) { // note the [synchronized]
+                return handleRequest(req);
+            }
+        } finally {
+            if (prevRequest == null) {
+                LOCAL_REQUEST.remove();
+            } else {
+                LOCAL_REQUEST.set(prevRequest);
+            }
+        }
+    }
+
+    private Response handleRequest(Request req) {
         if (corsEnabled && "OPTIONS".equals(req.getMethod())) {
             Response response = new Response(200);
             response.setHeader("Allow", ALLOWED_METHODS);
@@ -179,61 +227,84 @@ public class MockHandler implements ServerHandler {
             Thread.currentThread().setContextClassLoader(runtime.featureRuntime.suite.classLoader);            
             LOCAL_REQUEST.set(req);
             req.processBody();
-            ScenarioEngine engine = initEngine(runtime, globals, req);
-            for (FeatureSection fs : feature.getSections()) {
-                if (fs.isOutline()) {
-                    runtime.logger.warn("skipping scenario outline - {}:{}", feature, fs.getScenarioOutline().getLine());
-                    break;
+            long startTime = System.nanoTime();
+            ScenarioEngine engine = null; // only created when needed
+            for (MockRoute route : routeTables.get(feature).candidates(req.getPath())) {
+                Map<String, String> pathParams = null;
+                if (route.compiled) {
+                    if (!route.matches(req)) {
+                        continue;
+                    }
+                    if (route.path != null && !route.path.equals(req.getPath())) {
+                        pathParams = HttpUtils.parseUriPattern(route.path, req.getPath());
+                    }
                 }
-                Scenario scenario = fs.getScenario();
-                if (isMatchingScenario(scenario, engine)) {
-                    Map<String, Object> configureHeaders;
-                    Variable response, responseStatus, responseHeaders, responseDelay;
-                    ScenarioActions actions = new ScenarioActions(engine);
-                    Result result = executeScenarioSteps(feature, runtime, scenario, actions);
-                    engine.mockAfterScenario();
-                    configureHeaders = engine.mockConfigureHeaders();
-                    response = engine.vars.remove(ScenarioEngine.RESPONSE);
-                    responseStatus = engine.vars.remove(ScenarioEngine.RESPONSE_STATUS);
-                    responseHeaders = engine.vars.remove(ScenarioEngine.RESPONSE_HEADERS);
-                    responseDelay = engine.vars.remove(RESPONSE_DELAY);
-                    globals.putAll(engine.shallowCloneVariables());
-                    Response res = new Response(200);
-                    if (result.isFailed()) {
-                        response = new Variable(result.getError().getMessage());
-                        responseStatus = new Variable(500);
-                    } else {
-                        if (corsEnabled) {
-                            res.setHeader("Access-Control-Allow-Origin", "*");
-                        }
-                        res.setHeaders(configureHeaders);
-                        if (responseHeaders != null && responseHeaders.isMap()) {
-                            res.setHeaders(responseHeaders.getValue());
-                        }
-                        if (responseDelay != null) {
-                            res.setDelay(responseDelay.getAsInt());
-                        }
+                if (engine == null) {
+                    engine = initEngine(runtime, globals, req, concurrent);
+                    if (concurrent) {
+                        engine.setSharedVars(globals);
                     }
-                    if (response != null && !response.isNull()) {
-                        res.setBody(response.getAsByteArray());
-                        if (res.getContentType() == null) {
-                            ResourceType rt = ResourceType.fromObject(response.getValue());
-                            if (rt != null) {
-                                res.setContentType(rt.contentType);
-                            }
-                        }
+                }
+                Scenario scenario = route.scenario;
+                if (route.compiled) {
+                    engine.logger.debug("scenario matched at line {}: {}", scenario.getLine(), route.expression);
+                } else if (!isMatchingScenario(scenario, engine)) {
+                    continue;
+                }
+                if (pathParams != null) {
+                    engine.setVariable(PATH_PARAMS, pathParams);
+                }
+                route.recordMatch(System.nanoTime() - startTime);
+                Map<String, Object> configureHeaders;
+                Variable response, responseStatus, responseHeaders, responseDelay;
+                ScenarioActions actions = new ScenarioActions(engine);
+                Result result = executeScenarioSteps(feature, runtime, scenario, actions);
+                engine.mockAfterScenario();
+                configureHeaders = engine.mockConfigureHeaders();
+                response = engine.vars.remove(ScenarioEngine.RESPONSE);
+                responseStatus = engine.vars.remove(ScenarioEngine.RESPONSE_STATUS);
+                responseHeaders = engine.vars.remove(ScenarioEngine.RESPONSE_HEADERS);
+                responseDelay = engine.vars.remove(RESPONSE_DELAY);
+                if (concurrent) {
+                    engine.pushSharedVars();
+                } else {
+                    globals.putAll(engine.shallowCloneVariables());
+                }
+                Response res = new Response(200);
+                if (result.isFailed()) {
+                    response = new Variable(result.getError().getMessage());
+                    responseStatus = new Variable(500);
+                } else {
+                    if (corsEnabled) {
+                        res.setHeader("Access-Control-Allow-Origin", "*");
                     }
-                    if (responseStatus != null) {
-                        res.setStatus(responseStatus.getAsInt());
+                    res.setHeaders(configureHeaders);
+                    if (responseHeaders != null && responseHeaders.isMap()) {
+                        res.setHeaders(responseHeaders.getValue());
                     }
-                    if (prevEngine != null) {
-                        ScenarioEngine.set(prevEngine);
+                    if (responseDelay != null) {
+                        res.setDelay(responseDelay.getAsInt());
                     }
-                    if (mockInterceptor != null) {
-                        mockInterceptor.intercept(req, res, scenario);
+                }
+                if (response != null && !response.isNull()) {
+                    res.setBody(response.getAsByteArray());
+                    if (res.getContentType() == null) {
+                        ResourceType rt = ResourceType.fromObject(response.getValue());
+                        if (rt != null) {
+                            res.setContentType(rt.contentType);
+                        }
                     }
-                    return res;
                 }
+                if (responseStatus != null) {
+                    res.setStatus(responseStatus.getAsInt());
+                }
+                if (prevEngine != null) {
+                    ScenarioEngine.set(prevEngine);
+                }
+                if (mockInterceptor != null) {
+                    mockInterceptor.intercept(req, res, scenario);
+                }
+                return res;
             }
         }
         logger.warn("no scenarios matched, returning 404: {}", req); // NOTE: not logging with engine.logger
@@ -243,8 +314,10 @@ public class MockHandler implements ServerHandler {
         return new Response(404);
     }
     
-    private static ScenarioEngine initEngine(ScenarioRuntime runtime, Map<String, Variable> globals, Request req) {
-        ScenarioEngine engine = new ScenarioEngine(runtime.engine.getConfig(), runtime, new HashMap(globals), runtime.logger);        
+    private static ScenarioEngine initEngine(ScenarioRuntime runtime, Map<String, Variable> globals, Request req, boolean concurrent) {
+        // a configure in one request must not change the config of requests running at the same time
+        Config config = concurrent ? new Config(runtime.engine.getConfig()) : runtime.engine.getConfig();
+        ScenarioEngine engine = new ScenarioEngine(config, runtime, new HashMap(globals), runtime.logger);
         engine.init();
         engine.setVariable(ScenarioEngine.REQUEST_URL_BASE, req.getUrlBase());
         engine.setVariable(ScenarioEngine.REQUEST_PATH, req.getPath());
@@ -342,7 +415,11 @@ public class MockHandler implements ServerHandler {
     }
 
     public boolean headerContains(String name, String value) {
-        List<String> values = LOCAL_REQUEST.get().getHeaderValues(name);
+        return headerContains(LOCAL_REQUEST.get(), name, value);
+    }
+
+    static boolean headerContains(Request req, String name, String value) {
+        List<String> values = req.getHeaderValues(name);
         if (values != null) {
             for (String v : values) {
                 if (v.contains(value)) {
@@ -0,0 +1,190 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2022 Karate Labs Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.core;
+
+import com.intuit.karate.StringUtils;
+import com.intuit.karate.http.Request;
+import com.intuit.karate.http.UriPatternTrie;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * a mock scenario and its (compiled if possible) match expression, common
+ * shapes such as pathMatches('/cats/{id}') && methodIs('get') are evaluated
+ * in java, and anything else falls back to evaluating the expression as js
+ */
+class MockRoute {
+
+    private static final Logger logger = LoggerFactory.getLogger(MockRoute.class);
+
+    // e.g. methodIs('get') - string literals without quotes or escapes within
+    private static final Pattern ONE_ARG = Pattern.compile("\\s*(\\w+)\\(\\s*(['\"])([^'\"\\\\]*)\\2\\s*\\)\\s*");
+    private static final Pattern TWO_ARGS = Pattern.compile("\\s*(\\w+)\\(\\s*(['\"])([^'\"\\\\]*)\\2\\s*,\\s*(['\"])([^'\"\\\\]*)\\4\\s*\\)\\s*");
+
+    final Scenario scenario;
+    final int index;
+    final String expression; // null if the default scenario
+    final boolean compiled;
+    final String path; // pathMatches() if compiled
+    final String method; // methodIs() if compiled, upper-case
+    final List<Predicate<Request>> conditions; // the rest if compiled
+
+    private final LongAdder matchCount = new LongAdder();
+    private final LongAdder matchNanos = new LongAdder();
+
+    MockRoute(Scenario scenario, int index) {
+        this.scenario = scenario;
+        this.index = index;
+        expression = StringUtils.trimToNull(scenario.getName() + scenario.getDescription());
+        String tempPath = null;
+        String tempMethod = null;
+        List<Predicate<Request>> tempConditions = new ArrayList();
+        boolean tempCompiled = true;
+        if (expression != null) {
+            for (String part : expression.split("&&")) {
+                Matcher one = ONE_ARG.matcher(part);
+                Matcher two = TWO_ARGS.matcher(part);
+                if (one.matches()) {
+                    String arg = one.group(3);
+                    switch (one.group(1)) {
+                        case "pathMatches":
+                            if (tempPath == null) {
+                                tempPath = arg;
+                                continue;
+                            }
+                            break;
+                        case "methodIs":
+                            if (tempMethod == null) {
+                                tempMethod = arg.toUpperCase();
+                                continue;
+                            }
+                            break;
+                        case "paramExists":
+                            tempConditions.add(req -> req.getParams() != null && req.getParams().containsKey(arg));
+                            continue;
+                        case "typeContains":
+                            tempConditions.add(req -> req.getContentType() != null && req.getContentType().contains(arg));
+                            continue;
+                        case "acceptContains":
+                            tempConditions.add(req -> {
+                                String accept = req.getHeader("Accept");
+                                return accept != null && accept.contains(arg);
+                            });
+                            continue;
+                        default:
+                    }
+                } else if (two.matches() && "headerContains".equals(two.group(1))) {
+                    String name = two.group(3);
+                    String value = two.group(5);
+                    tempConditions.add(req -> MockHandler.headerContains(req, name, value));
+                    continue;
+                }
+                tempCompiled = false;
+                break;
+            }
+        }
+        compiled = tempCompiled;
+        path = compiled ? tempPath : null;
+        method = compiled ? tempMethod : null;
+        conditions = compiled ? tempConditions : null;
+    }
+
+    // only for compiled routes, everything except the path
+    boolean matches(Request req) {
+        if (method != null && !method.equalsIgnoreCase(req.getMethod())) {
+            return false;
+        }
+        for (Predicate<Request> condition : conditions) {
+            if (!condition.test(req)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void recordMatch(long nanos) {
+        matchCount.increment();
+        matchNanos.add(nanos);
+    }
+
+    // the routes of one feature, in order, with the path patterns indexed
+    static class Table {
+
+        final List<MockRoute> routes = new ArrayList();
+        final List<MockRoute> unindexed = new ArrayList(); // always candidates
+        final UriPatternTrie<MockRoute> index = new UriPatternTrie();
+
+        Table(Feature feature) {
+            for (FeatureSection fs : feature.getSections()) {
+                if (fs.isOutline()) { // routes after this would never be reached
+                    logger.warn("skipping scenario outline - {}:{}", feature, fs.getScenarioOutline().getLine());
+                    break;
+                }
+                MockRoute route = new MockRoute(fs.getScenario(), routes.size());
+                routes.add(route);
+                if (route.path != null) {
+                    index.add(route.path, route);
+                } else {
+                    unindexed.add(route);
+                }
+            }
+        }
+
+        // routes that may match, in the order they appear in the feature
+        List<MockRoute> candidates(String path) {
+            List<MockRoute> indexed = index.find(path);
+            if (indexed.isEmpty()) {
+                return unindexed;
+            }
+            List<MockRoute> list = new ArrayList(indexed.size() + unindexed.size());
+            list.addAll(indexed);
+            list.addAll(unindexed);
+            list.sort(Comparator.comparingInt(r -> r.index));
+            return list;
+        }
+
+    }
+
+    Map<String, Object> getStats() {
+        Map<String, Object> map = new LinkedHashMap();
+        map.put("feature", scenario.getFeature().getResource().getRelativePath());
+        map.put("line", scenario.getLine());
+        map.put("expression", expression);
+        map.put("compiled", compiled);
+        long count = matchCount.sum();
+        map.put("matchCount", count);
+        map.put("matchNanosAverage", count == 0 ? 0 : matchNanos.sum() / count);
+        return map;
+    }
+
+}
@@ -65,6 +65,7 @@ public class MockServer extends HttpServer {
         String prefix = null;
         MockInterceptor interceptor = null;
         boolean keepOriginalHeaders;
+        boolean concurrent;
 
         public Builder watch(boolean value) {
             watch = value;
@@ -123,6 +124,12 @@ public class MockServer extends HttpServer {
             return this;
         }
 
+        // handle requests in parallel, see MockHandler and karate.lock()
+        public Builder concurrent(boolean value) {
+            concurrent = value;
+            return this;
+        }
+
         public MockServer build() {
             ServerBuilder sb = Server.builder();
             sb.requestTimeoutMillis(0);
@@ -137,7 +144,7 @@ public class MockServer extends HttpServer {
                 sb.http(port);
             }
 
-            ServerHandler handler = watch ? new ReloadingMockHandler(features, args, prefix, interceptor) : new MockHandler(prefix, features, args, interceptor);
+            ServerHandler handler = watch ? new ReloadingMockHandler(features, args, prefix, interceptor, concurrent) : new MockHandler(prefix, features, args, interceptor, concurrent);
 
             HttpServerHandler.Builder serverHandlerBuilder = HttpServerHandler.Builder.builder();
             serverHandlerBuilder.handler(handler);
@@ -160,30 +167,48 @@ public class MockServer extends HttpServer {
     private static class ReloadingMockHandler implements ServerHandler {
 
         private final Map<String, Object> args;
-        private MockHandler handler;
-        private final LinkedHashMap<File, Long> files = new LinkedHashMap<>();
+        // requests can be handled in parallel (concurrent), so a reload has to be safely published
+        private volatile MockHandler handler;
+        private volatile Map<File, Long> files; // replaced along with the handler, never changed
         private final String prefix;
         private final MockInterceptor interceptor;
+        private final boolean concurrent;
 
-        public ReloadingMockHandler(List<Feature> features, Map<String, Object> args, String prefix, MockInterceptor interceptor) {
+        public ReloadingMockHandler(List<Feature> features, Map<String, Object> args, String prefix, MockInterceptor interceptor, boolean concurrent) {
             this.args = args;
             this.prefix = prefix;
             this.interceptor = interceptor;
+            this.concurrent = concurrent;
+            Map<File, Long> temp = new LinkedHashMap<>();
             for (Feature f : features) {
-                this.files.put(f.getResource().getFile(), f.getResource().getFile().lastModified());
+                temp.put(f.getResource().getFile(), f.getResource().getFile().lastModified());
             }
+            files = temp;
             logger.debug("watch mode init - {}", files);
-            handler = new MockHandler(prefix, features, args, this.interceptor);
+            handler = new MockHandler(prefix, features, args, this.interceptor, concurrent);
+        }
+
+        private boolean isModified() {
+            return files.entrySet().stream().anyMatch(entry -> entry.getKey().lastModified() > entry.getValue());
+        }
+
+        // only one thread re-loads, the others wait and then use the new handler
+        private synchronized MockHandler reload() {
+            if (isModified()) {
+                Map<File, Long> temp = new LinkedHashMap<>();
+                files.keySet().forEach(f -> temp.put(f, f.lastModified()));
+                List<Feature> features = temp.keySet().stream().map(f -> Feature.read(f)).collect(Collectors.toList());
+                handler = new MockHandler(prefix, features, args, interceptor, concurrent);
+                files = temp;
+                logger.debug("watch mode reloaded - {}", files);
+            }
+            return handler;
         }
 
         @Override
         public Response handle(Request request) {
-            boolean reload = files.entrySet().stream().reduce(false, (modified, entry) -> entry.getKey().lastModified() > entry.getValue(), (a, b) -> a || b);
-            if (reload) {
-                List<Feature> features = files.keySet().stream().map(f -> Feature.read(f)).collect(Collectors.toList());
-                handler = new MockHandler(prefix, features, args, interceptor);
-            }
-            return handler.handle(request);
+            MockHandler current = isModified() ? reload() : handler;
+            return current.handle(request);
         }
 
     }
@@ -50,17 +50,15 @@ public abstract class ParallelProcessor<T> {
         this.monitor = monitor;
     }
 
-    private Runnable toRunnable(final CompletableFuture prevFuture, final T next, final CompletableFuture future) {
+    private Runnable toRunnable(final T next, final CompletableFuture future) {
         return () -> {
-            if (prevFuture != null) {
-                prevFuture.join();
-            }
             try {
                 process(next);
             } catch (Exception e) {
                 logger.error("[parallel] input item failed: {}", e.getMessage());
+            } finally {
+                future.complete(Boolean.TRUE);
             }
-            future.complete(Boolean.TRUE);
         };
     }
 
@@ -71,14 +69,17 @@ public abstract class ParallelProcessor<T> {
             futures.add(future);
             T next = publisher.next();
             boolean sync = shouldRunSynchronously(next);
-            executor.submit(toRunnable(prevFuture, next, future));
+            Runnable task = toRunnable(next, future);
+            if (prevFuture == null) {
+                executor.submit(task);
+            } else { // submit only when the previous one is done, instead of blocking a pool thread to wait
+                prevFuture.whenComplete((r, e) -> executor.submit(task));
+            }
             prevFuture = sync ? future : null;
         }
         final CompletableFuture[] futuresArray = futures.toArray(new CompletableFuture[futures.size()]);
-        monitor.submit(() -> {
-            CompletableFuture.allOf(futuresArray).join();
-            onComplete();
-        });
+        // no need to block the monitor (usually a single thread) until all are done
+        CompletableFuture.allOf(futuresArray).whenComplete((r, e) -> monitor.submit(this::onComplete));
     }
 
     public boolean shouldRunSynchronously(T in) {
@@ -34,6 +34,9 @@ import java.io.InputStream;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -143,11 +146,7 @@ public class ScenarioBridge implements PerfContext {
         return JsValue.fromJava(result.getValue());
     }
 
-    private static Object callSingleResult(ScenarioEngine engine, Object o) throws Exception {
-        if (o instanceof Exception) {
-            engine.logger.warn("callSingle() cached result is an exception");
-            throw (Exception) o;
-        }
+    private static Object callSingleResult(ScenarioEngine engine, Object o) {
         // clone so that threads see the same data snapshot
         // we also attach js functions
         o = engine.JS.attachAll(o);
@@ -162,21 +161,8 @@ public class ScenarioBridge implements PerfContext {
         ScenarioEngine engine = getEngine();
         final Map<String, Object> CACHE = engine.runtime.featureRuntime.suite.callSingleCache;
         int minutes = engine.getConfig().getCallSingleCacheMinutes();
-        if ((minutes == 0) && CACHE.containsKey(fileName)) {
-            engine.logger.trace("callSingle cache hit: {}", fileName);
-            return callSingleResult(engine, CACHE.get(fileName));
-        }
-        long startTime = System.currentTimeMillis();
-        engine.logger.trace("callSingle waiting for lock: {}", fileName);
-        synchronized (CACHE) { // lock
-            if ((minutes == 0) && CACHE.containsKey(fileName)) { // retry
-                long endTime = System.currentTimeMillis() - startTime;
-                engine.logger.warn("this thread waited {} milliseconds for callSingle lock: {}", endTime, fileName);
-                return callSingleResult(engine, CACHE.get(fileName));
-            }
-            // this thread is the 'winner'
-            engine.logger.info(">> lock acquired, begin callSingle: {}", fileName);
-            Object result = null;
+        Object result = CallCache.getOrCall(CACHE, fileName, minutes == 0, () -> {
+            Object temp = null;
             File cacheFile = null;
             if (minutes > 0) {
                 String cleanedName = StringUtils.toIdString(fileName);
@@ -187,7 +173,7 @@ public class ScenarioBridge implements PerfContext {
                     long lastModified = cacheFile.lastModified();
                     if (lastModified > since) {
                         String json = FileUtils.toString(cacheFile);
-                        result = JsonUtils.fromJson(json);
+                        temp = JsonUtils.fromJson(json);
                         engine.logger.info("callSingleCache hit: {}", cacheFile);
                     } else {
                         engine.logger.info("callSingleCache stale, last modified {} - is before {} (minutes: {})",
@@ -197,7 +183,7 @@ public class ScenarioBridge implements PerfContext {
                     engine.logger.info("callSingleCache file does not exist, will create: {}", cacheFile);
                 }
             }
-            if (result == null) {
+            if (temp == null) {
                 String sFileName = (fileName.contains("?")) ? StringUtils.split(fileName, '?', false).get(0) : fileName;
                 Variable called = new Variable(read(sFileName));
                 Variable argVar;
@@ -211,10 +197,7 @@ public class ScenarioBridge implements PerfContext {
                     resultVar = engine.call(called, argVar, false);
                 } catch (Exception e) {
                     // don't retain any vestiges of graal-js
-                    RuntimeException re = new RuntimeException(e.getMessage());
-                    // we do this so that an exception is also "cached"
-                    resultVar = new Variable(re); // will be thrown at end
-                    engine.logger.warn("callSingle() will cache an exception");
+                    throw new RuntimeException(e.getMessage());
                 }
                 if (minutes > 0) { // cacheFile will be not null
                     if (resultVar.isMapOrList()) {
@@ -225,12 +208,11 @@ public class ScenarioBridge implements PerfContext {
                         engine.logger.warn("callSingleCache write failed, not json-like: {}", resultVar);
                     }
                 }
-                result = resultVar.getValue();
+                temp = resultVar.getValue();
             }
-            CACHE.put(fileName, result);
-            engine.logger.info("<< lock released, cached callSingle: {}", fileName);
-            return callSingleResult(engine, result);
-        }
+            return temp;
+        }, engine.logger, "callSingle");
+        return callSingleResult(engine, result);
     }
 
     public Object callonce(String path) {
@@ -586,6 +568,45 @@ public class ScenarioBridge implements PerfContext {
         }
     }
 
+    private static class NamedLock {
+
+        final Lock lock = new ReentrantLock();
+        int users; // only changed within LOCKS.compute()
+
+    }
+
+    // a lock is removed when no thread holds or waits for it, so that names do not pile up
+    private static final Map<String, NamedLock> LOCKS = new ConcurrentHashMap();
+
+    static int getLockCount() {
+        return LOCKS.size();
+    }
+
+    // runs the function while holding the named lock (shared by the whole jvm)
+    // in a concurrent mock, variables are refreshed before and published after
+    // so that a read-modify-write of mock "globals" is atomic
+    public Object lock(String name, Value f) {
+        assertIfJsFunction(f);
+        ScenarioEngine engine = getEngine();
+        NamedLock named = LOCKS.compute(name, (k, v) -> {
+            if (v == null) {
+                v = new NamedLock();
+            }
+            v.users++;
+            return v;
+        });
+        named.lock.lock();
+        try {
+            engine.pullSharedVars();
+            Value v = JsEngine.execute(f);
+            engine.pushSharedVars();
+            return new JsValue(v).getValue();
+        } finally {
+            named.lock.unlock();
+            LOCKS.computeIfPresent(name, (k, v) -> --v.users == 0 ? null : v);
+        }
+    }
+
     public void log(Value... values) {
         ScenarioEngine engine = getEngine();
         if (engine.getConfig().isPrintEnabled()) {
@@ -629,7 +650,8 @@ public class ScenarioBridge implements PerfContext {
     }
 
     public Object match(Value actual, Value expected) {
-        Match.Result mr = getEngine().match(Match.Type.EQUALS, JsValue.toJava(actual), JsValue.toJava(expected));
+        // transient, so no need to copy what the match may never look at
+        Match.Result mr = getEngine().match(Match.Type.EQUALS, JsValue.toJavaLazy(actual), JsValue.toJavaLazy(expected));
         return JsValue.fromJava(mr.toMap());
     }
 
@@ -802,23 +824,8 @@ public class ScenarioBridge implements PerfContext {
     public Object setupOnce(String name) {
         ScenarioEngine engine = getEngine();
         final Map<String, Map<String, Object>> CACHE = engine.runtime.featureRuntime.SETUPONCE_CACHE;
-        Map<String, Object> result = CACHE.get(name);
-        if (result != null) {
-            return setupOnceResult(result);
-        }
-        long startTime = System.currentTimeMillis();
-        engine.logger.trace("setupOnce waiting for lock: {}", name);
-        synchronized (CACHE) {
-            result = CACHE.get(name); // retry
-            if (result != null) {
-                long endTime = System.currentTimeMillis() - startTime;
-                engine.logger.warn("this thread waited {} milliseconds for setupOnce lock: {}", endTime, name);
-                return setupOnceResult(result);
-            }
-            result = setupInternal(engine, name);
-            CACHE.put(name, result);
-            return setupOnceResult(result);
-        }
+        Map<String, Object> result = CallCache.getOrCall(CACHE, name, true, () -> setupInternal(engine, name), engine.logger, "setupOnce");
+        return setupOnceResult(result);
     }
 
     private static Object setupOnceResult(Map<String, Object> result) {
@@ -844,13 +851,15 @@ public class ScenarioBridge implements PerfContext {
     }
 
     public Object sizeOf(Object o) {
-        Variable v = new Variable(o);
-        if (v.isList()) {
-            return v.<List>getValue().size();
-        } else if (v.isMap()) {
-            return v.<Map>getValue().size();
-        } else if (v.isBytes()) {
-            return v.<byte[]>getValue().length;
+        if (o instanceof Value) {
+            o = JsValue.toJavaLazy((Value) o);
+        }
+        if (o instanceof List) {
+            return ((List) o).size();
+        } else if (o instanceof Map) {
+            return ((Map) o).size();
+        } else if (o instanceof byte[]) {
+            return ((byte[]) o).length;
         } else {
             return -1;
         }
@@ -1034,7 +1043,11 @@ public class ScenarioBridge implements PerfContext {
     }
 
     public String typeOf(Value value) {
-        Variable v = new Variable(value);
+        Object o = JsValue.toJavaLazy(value);
+        if (JsValue.isView(o)) { // avoid the copy that a Variable would make
+            return o instanceof List ? "list" : "map";
+        }
+        Variable v = new Variable(o);
         return v.getTypeString();
     }
 
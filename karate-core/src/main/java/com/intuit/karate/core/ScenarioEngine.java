@@ -1231,6 +1231,44 @@ public class ScenarioEngine {
         }
     }
 
+    // concurrent mock mode: the variables shared by all requests
+    // and the ones this engine started with (or last synced)
+    private Map<String, Variable> sharedVars;
+    private Map<String, Variable> sharedSnapshot;
+
+    protected void setSharedVars(Map<String, Variable> sharedVars) {
+        this.sharedVars = sharedVars;
+        sharedSnapshot = new HashMap(vars);
+    }
+
+    // re-read the shared variables that this engine has not (re)defined
+    protected void pullSharedVars() {
+        if (sharedVars == null) {
+            return;
+        }
+        sharedVars.forEach((k, v) -> {
+            Variable local = vars.get(k);
+            if (local != v && local == sharedSnapshot.get(k)) {
+                setVariable(k, v);
+                sharedSnapshot.put(k, v);
+            }
+        });
+    }
+
+    // publish only the variables that this engine has (re)defined, so that
+    // a request never rolls back what another request did in the meantime
+    protected void pushSharedVars() {
+        if (sharedVars == null) {
+            return;
+        }
+        vars.forEach((k, v) -> {
+            if (v != sharedSnapshot.get(k)) {
+                sharedVars.put(k, v);
+                sharedSnapshot.put(k, v);
+            }
+        });
+    }
+
     protected Map<String, Variable> shallowCloneVariables() {
         Map<String, Variable> copy = new HashMap(vars.size());
         vars.forEach((k, v) -> copy.put(k, v.copy(false))); // shallow clone
@@ -1830,7 +1868,8 @@ public class ScenarioEngine {
     }
 
     public Match.Result match(Match.Type matchType, Object actual, Object expected) {
-        return Match.execute(JS, matchType, actual, expected, config.isMatchEachEmptyAllowed());
+        return Match.execute(JS, matchType, actual, expected, config.isMatchEachEmptyAllowed(),
+                config.getMatchEachMaxFailures(), config.getMatchEachParallelThreshold());
     }
 
     private static final Pattern VAR_AND_PATH_PATTERN = Pattern.compile("\\w+");
@@ -1985,31 +2024,14 @@ public class ScenarioEngine {
         } else {
             CACHE = runtime.featureRuntime.CALLONCE_CACHE;
         }
-        ScenarioCall.Result result = CACHE.get(cacheKey);
-        if (result != null) {
-            logger.trace("callonce cache hit for: {}", cacheKey);
-            return callOnceResult(result, sharedScope);
-        }
-        long startTime = System.currentTimeMillis();
-        logger.trace("callonce waiting for lock: {}", cacheKey);
-        synchronized (CACHE) {
-            result = CACHE.get(cacheKey); // retry
-            if (result != null) {
-                long endTime = System.currentTimeMillis() - startTime;
-                logger.warn("this thread waited {} milliseconds for callonce lock: {}", endTime, cacheKey);
-                return callOnceResult(result, sharedScope);
-            }
-            // this thread is the 'winner'
-            logger.info(">> lock acquired, begin callonce: {}", cacheKey);
+        ScenarioCall.Result result = CallCache.getOrCall(CACHE, cacheKey, true, () -> {
             Variable callResult = call(called, arg, sharedScope);
             // we clone result (and config) here, to snapshot state at the point the callonce was invoked
             Map<String, Variable> clonedVars = called.isFeature() && sharedScope ? shallowCloneVariables() : null;
-            result = new ScenarioCall.Result(callResult.copy(false), new Config(config), clonedVars);
-            CACHE.put(cacheKey, result);
-            logger.info("<< lock released, cached callonce: {}", cacheKey);
-            // another routine will apply globally if needed
-            return callOnceResult(result, sharedScope);
-        }
+            return new ScenarioCall.Result(callResult.copy(false), new Config(config), clonedVars);
+        }, logger, "callonce");
+        // another routine will apply globally if needed
+        return callOnceResult(result, sharedScope);
     }
 
     public Object callFeature(FeatureCall featureCall, Variable arg, int index, boolean sharedScope) {
@@ -294,6 +294,17 @@ public class ScenarioResult implements Comparable<ScenarioResult> {
         return map;
     }
 
+    // the background (if any) followed by the scenario
+    public List<Map<String, Object>> toCucumberJsonElements() {
+        List<Map<String, Object>> list = new ArrayList(2);
+        Map<String, Object> backgroundMap = backgroundToCucumberJson();
+        if (backgroundMap != null) {
+            list.add(backgroundMap);
+        }
+        list.add(toCucumberJson());
+        return list;
+    }
+
     public ScenarioResult(Scenario scenario) {
         this.scenario = scenario;
     }
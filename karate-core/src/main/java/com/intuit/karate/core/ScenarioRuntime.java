@@ -29,9 +29,10 @@ import com.intuit.karate.Logger;
 import com.intuit.karate.RuntimeHook;
 import com.intuit.karate.ScenarioActions;
 import com.intuit.karate.StringUtils;
+import com.intuit.karate.Suite;
 import com.intuit.karate.graal.JsEngine;
 import com.intuit.karate.http.ResourceType;
-import com.intuit.karate.shell.StringLogAppender;
+import com.intuit.karate.shell.SpillingLogAppender;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -71,7 +72,7 @@ public class ScenarioRuntime implements Runnable {
         this.caller = featureRuntime.caller;
         perfMode = featureRuntime.perfHook != null;
         if (caller.isNone()) {
-            logAppender = new StringLogAppender(false);
+            logAppender = new SpillingLogAppender();
             engine = new ScenarioEngine(caller.getParentConfig(false), this, new HashMap<>(), logger);
         } else if (caller.isSharedScope()) {
             logAppender = caller.parentRuntime.logAppender;
@@ -290,6 +291,55 @@ public class ScenarioRuntime implements Runnable {
         logger.error("{}", message);
     }
 
+    private void evalConfig() {
+        Suite suite = featureRuntime.suite;
+        evalConfigJs(suite.karateBase, "karate-base.js");
+        evalConfigJs(suite.karateConfig, "karate-config.js");
+        evalConfigJs(suite.karateConfigEnv, "karate-config-" + suite.env + ".js");
+    }
+
+    private void evalConfigOnce() {
+        Suite suite = featureRuntime.suite;
+        ScenarioCall.Result snapshot = suite.getKarateConfigSnapshot();
+        if (snapshot == null) {
+            // not synchronized, config js can make http calls, which would pin a virtual thread
+            suite.karateConfigLock.lock();
+            try {
+                snapshot = suite.getKarateConfigSnapshot(); // retry
+                if (snapshot == null) {
+                    // e.g. the call arg, which is specific to this scenario and must not be cached
+                    Map<String, Variable> before = new HashMap(engine.vars);
+                    evalConfig();
+                    if (configFailed) { // not cached, so that every scenario fails the same way
+                        return;
+                    }
+                    Map<String, Variable> vars = new HashMap();
+                    engine.vars.forEach((k, v) -> {
+                        if (before.get(k) != v) { // added or changed by config js
+                            vars.put(k, v.copy(true));
+                        }
+                    });
+                    snapshot = new ScenarioCall.Result(null, new Config(engine.getConfig()), vars);
+                    suite.setKarateConfigSnapshot(snapshot);
+                    logger.debug("cached config snapshot for suite, variables: {}", snapshot.vars.keySet());
+                    // so that the first scenario sees the same as the ones that follow
+                    before.forEach((k, v) -> engine.setVariable(k, v));
+                    return;
+                }
+            } finally {
+                suite.karateConfigLock.unlock();
+            }
+        }
+        // deep copy, so that scenarios cannot see each other's changes to config variables
+        // and the call arg of this scenario wins over config variables of the same name
+        snapshot.vars.forEach((k, v) -> {
+            if (!engine.vars.containsKey(k)) {
+                engine.setVariable(k, v.copy(true));
+            }
+        });
+        engine.setConfig(new Config(snapshot.config));
+    }
+
     private void evalConfigJs(String js, String displayName) {
         if (js == null || configFailed) {
             return;
@@ -369,9 +419,11 @@ public class ScenarioRuntime implements Runnable {
         if (!dryRun) {
             if (caller.isNone() && !caller.isKarateConfigDisabled()) {
                 // evaluate config js, variables above will apply !
-                evalConfigJs(featureRuntime.suite.karateBase, "karate-base.js");
-                evalConfigJs(featureRuntime.suite.karateConfig, "karate-config.js");
-                evalConfigJs(featureRuntime.suite.karateConfigEnv, "karate-config-" + featureRuntime.suite.env + ".js");
+                if (featureRuntime.suite.karateConfigOnce) {
+                    evalConfigOnce();
+                } else {
+                    evalConfig();
+                }
             }
             skipped = !featureRuntime.suite.hooks.stream()
                     .map(h -> h.beforeScenario(this))
@@ -528,12 +580,21 @@ public class ScenarioRuntime implements Runnable {
 
     private void addStepLogEmbedsAndCallResults() {
         boolean showLog = !reportDisabled && engine.getConfig().isShowLog();
-        String stepLog = logAppender.collect();
-        if (showLog) {
-            currentStepResult.appendToStepLog(stepLog);
-            if (currentStepResult.isErrorIgnored()) {
-                currentStepResult.appendToStepLog(currentStepResult.getErrorMessage());
+        File stepLogFile = logAppender instanceof SpillingLogAppender ? ((SpillingLogAppender) logAppender).collectFile() : null;
+        if (stepLogFile != null) {
+            if (showLog) {
+                currentStepResult.appendToStepLog(stepLogFile);
+            } else {
+                stepLogFile.delete();
             }
+        } else {
+            String stepLog = logAppender.collect();
+            if (showLog) {
+                currentStepResult.appendToStepLog(stepLog);
+            }
+        }
+        if (showLog && currentStepResult.isErrorIgnored()) {
+            currentStepResult.appendToStepLog(currentStepResult.getErrorMessage());
         }
         if (callResults != null) {
             currentStepResult.addCallResults(callResults);
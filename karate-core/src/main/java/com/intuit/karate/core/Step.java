@@ -48,6 +48,7 @@ public class Step {
     private String text;
     private String docString;
     private Table table;
+    private volatile StepRuntime.MethodMatch binding; // resolved on first execution
 
     public static final List<String> PREFIXES = Arrays.asList("*", "Given", "When", "Then", "And", "But");
 
@@ -68,6 +69,7 @@ public class Step {
         this.text = tempStep.text;
         this.docString = tempStep.docString;
         this.table = tempStep.table;
+        this.binding = null;
     }
 
     public String getDebugInfo() {
@@ -197,6 +199,15 @@ public class Step {
 
     public void setText(String text) {
         this.text = text;
+        this.binding = null;
+    }
+
+    StepRuntime.MethodMatch getBinding() {
+        return binding;
+    }
+
+    void setBinding(StepRuntime.MethodMatch binding) {
+        this.binding = binding;
     }
 
     public String getDocString() {
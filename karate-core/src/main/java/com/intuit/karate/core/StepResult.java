@@ -23,14 +23,24 @@
  */
 package com.intuit.karate.core;
 
+import com.intuit.karate.FileUtils;
 import com.intuit.karate.Json;
 import com.intuit.karate.StringUtils;
+import com.intuit.karate.shell.SpillingLogAppender;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import net.minidev.json.JSONStreamAwareEx;
+import net.minidev.json.JSONStyle;
+import net.minidev.json.JSONValue;
 
 /**
  *
@@ -47,6 +57,7 @@ public class StepResult {
     private List<Embed> embeds;
     private List<FeatureResult> callResults;
     private String stepLog;
+    private File stepLogFile; // large logs spilled to disk
     private boolean errorIgnored = false;
     private Throwable failedReason;
 
@@ -62,14 +73,27 @@ public class StepResult {
         if (log == null) {
             return;
         }
+        if (stepLogFile != null && SpillingLogAppender.append(stepLogFile, log)) {
+            return;
+        }
         if (stepLog == null) {
             stepLog = "";
         }
         stepLog = stepLog + log;
     }
 
+    public void appendToStepLog(File file) {
+        if (stepLogFile == null && stepLog == null) {
+            stepLogFile = file;
+        } else { // rare, merge into whatever we already have
+            appendToStepLog(FileUtils.toString(file));
+            file.delete();
+        }
+    }
+
     public void setStepLog(String stepLog) {
         this.stepLog = stepLog;
+        stepLogFile = null;
     }
 
     public void setCallResults(List<FeatureResult> callResults) {
@@ -104,8 +128,8 @@ public class StepResult {
         if (hidden != null) {
             sr.setHidden(hidden);
         }
-        String stepLog = (String) map.get("stepLog");
-        sr.setStepLog(stepLog);
+        Object stepLog = map.get("stepLog"); // not a string if the map was not read from a file
+        sr.setStepLog(stepLog == null ? null : stepLog.toString());
         List<Map<String, Object>> embedsList = (List) map.get("embeds");
         if (embedsList != null) {
             List<Embed> embeds = new ArrayList(embedsList.size());
@@ -126,7 +150,11 @@ public class StepResult {
         if (hidden) {
             map.put("hidden", hidden);
         }
-        if (!StringUtils.isBlank(stepLog)) {
+        if (stepLogFile != null) {
+            if (stepLogFile.exists()) {
+                map.put("stepLog", new StepLogFile(null, stepLogFile));
+            }
+        } else if (!StringUtils.isBlank(stepLog)) {
             map.put("stepLog", stepLog);
         }
         if (embeds != null && !embeds.isEmpty()) {
@@ -167,15 +195,19 @@ public class StepResult {
         map.put("name", step.getText());
         map.put("result", result.toCucumberJson());
         map.put("match", DUMMY_MATCH);
-        StringBuilder sb = new StringBuilder();
-        if (step.getDocString() != null) {
-            sb.append(step.getDocString());
-        }
-        if (stepLog != null) {
-            sb.append(stepLog);
-        }
-        if (sb.length() > 0) {
-            map.put("doc_string", docStringToCucumberJson(step.getLine(), sb.toString()));
+        if (stepLogFile != null && stepLogFile.exists()) {
+            map.put("doc_string", docStringToCucumberJson(step.getLine(), new StepLogFile(step.getDocString(), stepLogFile)));
+        } else {
+            StringBuilder sb = new StringBuilder();
+            if (step.getDocString() != null) {
+                sb.append(step.getDocString());
+            }
+            if (stepLog != null) {
+                sb.append(stepLog);
+            }
+            if (sb.length() > 0) {
+                map.put("doc_string", docStringToCucumberJson(step.getLine(), sb.toString()));
+            }
         }
         if (step.getTable() != null) {
             map.put("rows", tableToCucumberJson(step.getTable()));
@@ -199,7 +231,7 @@ public class StepResult {
         DUMMY_MATCH.put("arguments", Collections.EMPTY_LIST);
     }
 
-    private static Map<String, Object> docStringToCucumberJson(int line, String text) {
+    private static Map<String, Object> docStringToCucumberJson(int line, Object text) {
         Map<String, Object> map = new HashMap(3);
         map.put("content_type", "");
         map.put("line", line);
@@ -240,10 +272,64 @@ public class StepResult {
         return result;
     }
 
+    // a spilled log is deleted only once the reports have been written (after the hooks ran)
+    // from then on it is read back from the reports, e.g. Suite.getFeatureResults()
     public String getStepLog() {
+        if (stepLogFile != null) { // read back only when asked for, the json reports stream the file instead
+            return stepLogFile.exists() ? FileUtils.toString(stepLogFile) : null;
+        }
         return stepLog;
     }
 
+    // once the reports are written the spilled log is no longer needed
+    public void deleteStepLogFile() {
+        if (stepLogFile != null) {
+            stepLogFile.delete();
+            stepLogFile = null;
+        }
+    }
+
+    // written as a json string by copying the file in chunks, so that the whole log is never in memory
+    // anything that is not a json writer (e.g. the html report) gets it via toString()
+    private static class StepLogFile implements JSONStreamAwareEx {
+
+        private final String prefix;
+        private final File file;
+
+        StepLogFile(String prefix, File file) {
+            this.prefix = prefix;
+            this.file = file;
+        }
+
+        @Override
+        public void writeJSONString(Appendable out) throws IOException {
+            writeJSONString(out, JSONValue.COMPRESSION);
+        }
+
+        @Override
+        public void writeJSONString(Appendable out, JSONStyle style) throws IOException {
+            out.append('"');
+            if (prefix != null) {
+                style.escape(prefix, out);
+            }
+            try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+                char[] buffer = new char[8192];
+                int count;
+                while ((count = reader.read(buffer)) != -1) {
+                    style.escape(new String(buffer, 0, count), out);
+                }
+            }
+            out.append('"');
+        }
+
+        @Override
+        public String toString() {
+            String text = FileUtils.toString(file);
+            return prefix == null ? text : prefix + text;
+        }
+
+    }
+
     public List<Embed> getEmbeds() {
         return embeds;
     }
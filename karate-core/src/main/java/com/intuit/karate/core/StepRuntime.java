@@ -29,6 +29,9 @@ import com.intuit.karate.JsonUtils;
 import com.intuit.karate.KarateException;
 import com.intuit.karate.ScenarioActions;
 import com.intuit.karate.StringUtils;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
@@ -51,6 +54,7 @@ public class StepRuntime {
 
         final String regex;
         final Method method;
+        final MethodHandle invoker;
         final Pattern pattern;
         final String keyword;
 
@@ -60,6 +64,7 @@ public class StepRuntime {
             this.method = method;
             try {
                 pattern = Pattern.compile(regex);
+                invoker = toInvoker(method);
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
@@ -72,6 +77,13 @@ public class StepRuntime {
             keyword = keyword1;
         }
 
+        // (Object actions, Object[] args) -> Object, so that invoking skips reflection
+        static MethodHandle toInvoker(Method method) throws IllegalAccessException {
+            MethodHandle mh = MethodHandles.publicLookup().unreflect(method);
+            mh = mh.asSpreader(Object[].class, method.getParameterCount());
+            return mh.asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+        }
+
         List<String> match(String text) {
             Matcher matcher = pattern.matcher(text);
             if (matcher.lookingAt()) {
@@ -99,10 +111,28 @@ public class StepRuntime {
 
         final Method method;
         final List<String> args;
+        final MethodHandle invoker; // null when re-created from json
 
         MethodMatch(Method method, List<String> args) {
+            this(method, args, null);
+        }
+
+        MethodMatch(Method method, List<String> args, MethodHandle invoker) {
             this.method = method;
             this.args = args;
+            this.invoker = invoker;
+        }
+
+        void invoke(Actions actions, Object[] args) throws Throwable {
+            if (invoker == null) {
+                try {
+                    method.invoke(actions, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            } else {
+                invoker.invoke(actions, args);
+            }
         }
 
         Object[] convertArgs(Object last) {
@@ -219,7 +249,7 @@ public class StepRuntime {
         for (MethodPattern pattern : PATTERNS) {
             List<String> args = pattern.match(text);
             if (args != null) {
-                matches.add(new MethodMatch(pattern.method, args));
+                matches.add(new MethodMatch(pattern.method, args, pattern.invoker));
             }
         }
         return matches;
@@ -246,27 +276,66 @@ public class StepRuntime {
         return System.nanoTime() - startTime;
     }
 
-    public static Result execute(Step step, Actions actions) {
-        String text = step.getText();
+    // step text is immutable for most steps, but outlines and calls re-create
+    // step instances, so bindings are also shared by text across features
+    // least recently used first, so that long data-driven runs keep binding the
+    // steps they are running now, only looked up once per step instance (see execute)
+    private static final int BINDINGS_MAX_SIZE = 10000;
+    private static final Map<String, MethodMatch> BINDINGS = new LinkedHashMap<String, MethodMatch>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, MethodMatch> eldest) {
+            return size() > BINDINGS_MAX_SIZE;
+        }
+    };
+
+    private static MethodMatch bind(String text) {
+        MethodMatch match;
+        synchronized (BINDINGS) {
+            match = BINDINGS.get(text);
+        }
+        if (match != null) {
+            return match;
+        }
         List<MethodMatch> matches = findMethodsMatching(text);
         if (matches.isEmpty()) {
-            KarateException e = new KarateException("no step-definition method match found for: " + text);
-            return Result.failed(System.currentTimeMillis(), 0, e, step);
+            throw new KarateException("no step-definition method match found for: " + text);
         } else if (matches.size() > 1) {
-            boolean evalAssign = false; // special case to support foo.bar = (docstring) in cucumber syntax
+            match = null; // special case to support foo.bar = (docstring) in cucumber syntax
             for (MethodMatch m : matches) {
                 if (m.getMethod().getName().equalsIgnoreCase("evalAssignDocString")) {
-                    evalAssign = true;
-                    matches = Collections.singletonList(m);
+                    match = m;
                     break;
                 }
             }
-            if (!evalAssign) {
-                KarateException e = new KarateException("more than one step-definition method matched: " + text + " - " + matches);
+            if (match == null) {
+                throw new KarateException("more than one step-definition method matched: " + text + " - " + matches);
+            }
+        } else {
+            match = matches.get(0);
+        }
+        synchronized (BINDINGS) {
+            BINDINGS.put(text, match);
+        }
+        return match;
+    }
+
+    static int getBindingsSize() {
+        synchronized (BINDINGS) {
+            return BINDINGS.size();
+        }
+    }
+
+    public static Result execute(Step step, Actions actions) {
+        String text = step.getText();
+        MethodMatch match = step.getBinding();
+        if (match == null) {
+            try {
+                match = bind(text);
+            } catch (KarateException e) {
                 return Result.failed(System.currentTimeMillis(), 0, e, step);
             }
+            step.setBinding(match);
         }
-        MethodMatch match = matches.get(0);
         Object last;
         if (step.getDocString() != null) {
             last = step.getDocString();
@@ -285,7 +354,7 @@ public class StepRuntime {
         final long startTime = System.currentTimeMillis();
         final long startTimeNanos = System.nanoTime();
         try {
-            match.method.invoke(actions, args);
+            match.invoke(actions, args);
             final long elapsedTimeNanos = getElapsedTimeNanos(startTimeNanos);
             if (actions.isAborted()) {
                 return Result.aborted(startTime, elapsedTimeNanos, match);
@@ -294,9 +363,7 @@ public class StepRuntime {
             } else {
                 return Result.passed(startTime, elapsedTimeNanos, match);
             }
-        } catch (InvocationTargetException e) {
-            return Result.failed(startTime, getElapsedTimeNanos(startTimeNanos), e.getTargetException(), step, match);
-        } catch (Exception e) {
+        } catch (Throwable e) {
             return Result.failed(startTime, getElapsedTimeNanos(startTimeNanos), e, step, match);
         }
     }
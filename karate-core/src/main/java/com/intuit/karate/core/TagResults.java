@@ -42,20 +42,23 @@ public class TagResults {
     private final List<Map<String, Object>> featureTagsList = new ArrayList();
 
     public void addFeatureResult(FeatureResult fr) {
+        addFeatureSummary(FeatureSummary.of(fr));
+    }
+
+    public void addFeatureSummary(FeatureSummary fs) {
         Map<String, Object> featureTags = new HashMap();
         featureTagsList.add(featureTags);
-        featureTags.put("featureSummary", fr.toSummaryJson());
+        featureTags.put("featureSummary", fs.toSummaryJson());
         Set<String> tagKeysSet = new TreeSet();
         featureTags.put("tagKeys", tagKeysSet);
         Set<String> failedTagKeysSet = new TreeSet();
         featureTags.put("failedTagKeys", failedTagKeysSet);        
-        for (ScenarioResult sr : fr.getScenarioResults()) {
-            Tags tags = sr.getScenario().getTagsEffective();
-            allTagKeys.addAll(tags.getTagKeys());
-            tagKeysSet.addAll(tags.getTagKeys());
-            if (sr.isFailed()) {
-                failedTagKeys.addAll(tags.getTagKeys());
-                failedTagKeysSet.addAll(tags.getTagKeys());
+        for (FeatureSummary.ScenarioSummary ss : fs.getScenarios()) {
+            allTagKeys.addAll(ss.tagKeys);
+            tagKeysSet.addAll(ss.tagKeys);
+            if (ss.failed) {
+                failedTagKeys.addAll(ss.tagKeys);
+                failedTagKeysSet.addAll(ss.tagKeys);
             }
         }
     }
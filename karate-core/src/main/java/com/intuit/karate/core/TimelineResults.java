@@ -47,8 +47,12 @@ public class TimelineResults {
     private int id;
 
     public void addFeatureResult(FeatureResult fr) {
-        fr.getScenarioResults().stream().forEach(sr -> {
-            String threadName = sr.getExecutorName();
+        addFeatureSummary(FeatureSummary.of(fr));
+    }
+
+    public void addFeatureSummary(FeatureSummary fs) {
+        for (FeatureSummary.ScenarioSummary ss : fs.getScenarios()) {
+            String threadName = ss.executorName;
             Integer groupId = groupsMap.get(threadName);
             if (groupId == null) {
                 groupId = groupsMap.size() + 1;
@@ -58,26 +62,24 @@ public class TimelineResults {
             items.add(item);
             item.put("id", ++id);
             item.put("group", groupId);
-            Scenario s = sr.getScenario();
-            String featureName = s.getFeature().getResource().getFileNameWithoutExtension();
-            String content = featureName + s.getRefId();
+            String content = ss.content;
             item.put("content", content);
-            long startTime = sr.getStartTime();
+            long startTime = ss.startTime;
             item.put("start", startTime);
-            long endTime = sr.getEndTime() - 1; // avoid overlap when rendering
+            long endTime = ss.endTime - 1; // avoid overlap when rendering
             item.put("end", endTime);
             String startTimeString = dateFormat.format(new Date(startTime));
             String endTimeString = dateFormat.format(new Date(endTime));
             content = content + " " + startTimeString + "-" + endTimeString;
-            String scenarioTitle = StringUtils.trimToEmpty(s.getName());
+            String scenarioTitle = StringUtils.trimToEmpty(ss.name);
             if (!scenarioTitle.isEmpty()) {
                 content = content + " " + scenarioTitle;
             }
             item.put("title", content);
-            if (sr.isFailed()) {
+            if (ss.failed) {
                 item.put("className", "failed");
             }
-        });
+        }
     }
 
     public Map<String, Object> toKarateJson() {
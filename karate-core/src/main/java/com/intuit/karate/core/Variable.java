@@ -74,6 +74,7 @@ public class Variable {
         } else if (o instanceof JsValue) {
             o = ((JsValue) o).getValue();
         }
+        o = JsValue.materialize(o); // variables can be shared across threads
         if (o == null) {
             type = Type.NULL;
         } else if (o instanceof ProxyExecutable) {
@@ -271,7 +272,7 @@ public class Variable {
             case MAP:
                 return deep ? new Variable(JsonUtils.deepCopy(value)) : new Variable(new LinkedHashMap((Map) value));
             case XML:
-                return new Variable(XmlUtils.toXmlDoc(getAsString()));
+                return new Variable(XmlUtils.copy(getValue()));
             default:
                 return this;
         }
@@ -0,0 +1,157 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2022 Karate Labs Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.core;
+
+import com.intuit.karate.XmlUtils;
+import com.intuit.karate.graal.JsEngine;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * one new virtual thread per task (java 21 and above), with at most
+ * [maxConcurrency] tasks running at the same time, the rest wait (parked)
+ *
+ * the submitting thread is never blocked, which matters because tasks are
+ * submitted from other tasks, see ParallelProcessor
+ *
+ * while running, each thread is named after the "slot" it holds, so that the
+ * timeline report has one lane per slot, not one per scenario
+ *
+ * state that is normally per thread (the global js engine, the xml caches) is
+ * given back when a task is done, so that the next task re-uses it instead of
+ * building it again for every scenario
+ */
+public class VirtualThreadExecutorService extends AbstractExecutorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadExecutorService.class);
+
+    private static final String THREAD_NAME_PREFIX = "virtual-";
+
+    private final ExecutorService delegate;
+    private final BlockingQueue<Integer> slots; // null if there is no limit
+
+    private VirtualThreadExecutorService(ExecutorService delegate, int maxConcurrency) {
+        this.delegate = delegate;
+        if (maxConcurrency > 0) {
+            slots = new ArrayBlockingQueue(maxConcurrency, true); // fair, so that tasks start in order
+            for (int i = 1; i <= maxConcurrency; i++) {
+                slots.add(i);
+            }
+        } else {
+            slots = null;
+        }
+    }
+
+    public static boolean isSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    // returns null if virtual threads are not supported by this jvm
+    // zero or less for no limit, e.g. one virtual thread per gatling user
+    public static ExecutorService newExecutor(int maxConcurrency) {
+        if (!isSupported()) {
+            return null;
+        }
+        try { // reflection, because we compile against java 17
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService delegate = (ExecutorService) method.invoke(null);
+            return new VirtualThreadExecutorService(delegate, maxConcurrency);
+        } catch (Exception e) {
+            logger.warn("unable to create virtual thread executor: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public int getAvailableSlots() {
+        return slots == null ? Integer.MAX_VALUE : slots.size();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(() -> {
+            if (slots == null) {
+                run(command);
+                return;
+            }
+            Integer slot;
+            try {
+                slot = slots.take(); // a virtual thread parks cheaply
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            Thread thread = Thread.currentThread();
+            thread.setName(THREAD_NAME_PREFIX + slot);
+            try {
+                run(command);
+            } finally {
+                slots.add(slot);
+            }
+        });
+    }
+
+    // the thread ends with the task, so what it built can go to the next task
+    static void run(Runnable command) {
+        try {
+            command.run();
+        } finally {
+            JsEngine.release();
+            XmlUtils.release();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+}
@@ -30,13 +30,19 @@ import java.io.File;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
 import org.graalvm.polyglot.proxy.ProxyExecutable;
 import org.slf4j.Logger;
@@ -59,26 +65,91 @@ public class JsEngine {
     private static final String TRUE = "true";
     private static final String FALSE = "false";
 
-    private static final ThreadLocal<JsEngine> GLOBAL_JS_ENGINE = new ThreadLocal<JsEngine>() {
-        @Override
-        protected JsEngine initialValue() {
-            return new JsEngine(createContext(null));
-        }
-    };
+    // one engine for the whole JVM, so that all contexts (across threads)
+    // share parsed and compiled code instead of warming up per thread
+    private static final Engine ENGINE = Engine.newBuilder()
+            .option(ENGINE_WARN_INTERPRETER_ONLY, FALSE)
+            .build();
+
+    private static final String SOURCE_NAME = "Unnamed"; // same as Context.eval(String, CharSequence)
+    private static final int SOURCE_CACHE_MAX_SIZE = 5000;
+    private static final int SOURCE_CACHE_EVICT_TO = SOURCE_CACHE_MAX_SIZE * 9 / 10;
+    // evaluated on every thread, so a hit has to be lock-free, which rules out an access-ordered map
+    // instead, entries not used since the last sweep are evicted first (second chance)
+    // so that one-off expressions (e.g. with embedded values) do not crowd out the hot ones
+    private static final Map<String, CachedSource> SOURCE_CACHE = new ConcurrentHashMap();
+    private static final AtomicBoolean SOURCE_CACHE_EVICTING = new AtomicBoolean();
+
+    private static class CachedSource {
 
-    private static Context createContext(Engine engine) {
-        if (engine == null) {
-            engine = Engine.newBuilder()
-                    .option(ENGINE_WARN_INTERPRETER_ONLY, FALSE)
-                    .build();
+        final Source source;
+        volatile boolean used;
+
+        CachedSource(Source source) {
+            this.source = source;
         }
+
+    }
+
+    private static final ThreadLocal<JsEngine> GLOBAL_JS_ENGINE = new ThreadLocal();
+
+    // a virtual thread runs a single task (e.g. a scenario) so a context per thread would be a new
+    // context per task, instead the task gives it back when done (see release()) for the next one
+    private static final int GLOBAL_POOL_MAX_SIZE = 256;
+    private static final BlockingQueue<JsEngine> GLOBAL_POOL = new ArrayBlockingQueue(GLOBAL_POOL_MAX_SIZE);
+
+    private static Context createContext() {
         return Context.newBuilder(JS)
                 .allowExperimentalOptions(true)
                 .allowAllAccess(true)
                 .option(JS_NASHORN_COMPAT, TRUE)
                 .option(JS_ECMASCRIPT_VERSION, V_2021)
                 .option(JS_FOREIGN_OBJECT_PROTOTYPE, TRUE)
-                .engine(engine).build();
+                .engine(ENGINE).build();
+    }
+
+    static Source toSource(String exp) {
+        CachedSource cached = SOURCE_CACHE.get(exp);
+        if (cached != null) {
+            if (!cached.used) { // avoid a volatile write on every hit
+                cached.used = true;
+            }
+            return cached.source;
+        }
+        cached = new CachedSource(Source.newBuilder(JS, exp, SOURCE_NAME).cached(true).buildLiteral());
+        CachedSource existing = SOURCE_CACHE.putIfAbsent(exp, cached);
+        if (existing != null) { // another thread got there first
+            return existing.source;
+        }
+        if (SOURCE_CACHE.size() > SOURCE_CACHE_MAX_SIZE) {
+            evictSources();
+        }
+        return cached.source;
+    }
+
+    private static void evictSources() {
+        if (!SOURCE_CACHE_EVICTING.compareAndSet(false, true)) {
+            return; // another thread is on it
+        }
+        try { // down to a bit below the max, so that this does not happen on every miss
+            while (SOURCE_CACHE.size() > SOURCE_CACHE_EVICT_TO) {
+                Iterator<CachedSource> iterator = SOURCE_CACHE.values().iterator();
+                while (iterator.hasNext() && SOURCE_CACHE.size() > SOURCE_CACHE_EVICT_TO) {
+                    CachedSource cached = iterator.next();
+                    if (cached.used) {
+                        cached.used = false;
+                    } else {
+                        iterator.remove();
+                    }
+                }
+            }
+        } finally {
+            SOURCE_CACHE_EVICTING.set(false);
+        }
+    }
+
+    static int getSourceCacheSize() {
+        return SOURCE_CACHE.size();
     }
 
     public static JsValue evalGlobal(String src) {
@@ -90,16 +161,39 @@ public class JsEngine {
     }
 
     public static JsEngine global() {
-        return GLOBAL_JS_ENGINE.get();
+        JsEngine je = GLOBAL_JS_ENGINE.get();
+        if (je == null) {
+            je = GLOBAL_POOL.poll();
+            if (je == null) {
+                je = new JsEngine(createContext());
+            }
+            GLOBAL_JS_ENGINE.set(je);
+        }
+        return je;
     }
 
+    // discards the engine of this thread, the next global() starts afresh
     public static void remove() {
         GLOBAL_JS_ENGINE.remove();
     }
 
+    // for a thread that is about to end, the engine (if any) can be re-used by another thread
+    public static void release() {
+        JsEngine je = GLOBAL_JS_ENGINE.get();
+        if (je != null) {
+            GLOBAL_JS_ENGINE.remove();
+            if (!GLOBAL_POOL.offer(je)) {
+                je.context.close();
+            }
+        }
+    }
+
+    static int getGlobalPoolSize() {
+        return GLOBAL_POOL.size();
+    }
+
     public static JsEngine local() {
-        Engine engine = GLOBAL_JS_ENGINE.get().context.getEngine();
-        return new JsEngine(createContext(engine));
+        return new JsEngine(createContext());
     }
 
     //==========================================================================
@@ -107,6 +201,9 @@ public class JsEngine {
     public final Context context;
     public final Value bindings;
 
+    private static final int FUNCTION_CACHE_MAX_SIZE = 256;
+    private Map<String, Value> functions; // per context, created on first use, null if not compilable
+
     private JsEngine(Context context) {
         this.context = context;
         bindings = context.getBindings(JS);
@@ -166,7 +263,46 @@ public class JsEngine {
     }
 
     public Value evalForValue(String exp) {
-        return context.eval(JS, exp);
+        return context.eval(toSource(exp));
+    }
+
+    /**
+     * evaluates an expression that refers to "_" and "$", for expressions that
+     * are evaluated again and again (e.g. match macros) this compiles them into
+     * a function once instead of binding globals and parsing every time
+     */
+    public JsValue evalWith(String exp, Object underscore, Object dollar) {
+        if (functions == null) {
+            functions = new LinkedHashMap<String, Value>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Value> eldest) {
+                    return size() > FUNCTION_CACHE_MAX_SIZE;
+                }
+            };
+        }
+        Value fn;
+        if (functions.containsKey(exp)) {
+            fn = functions.get(exp);
+        } else {
+            try {
+                fn = evalForValue("(function(_, $){ return (" + exp + "\n) })");
+            } catch (Exception e) { // e.g. not a single expression, so eval the old way
+                logger.trace("unable to compile as function: {} - {}", exp, e.getMessage());
+                fn = null;
+            }
+            functions.put(exp, fn);
+        }
+        if (fn == null) {
+            put("$", dollar);
+            put("_", underscore);
+            try {
+                return eval(exp);
+            } finally {
+                bindings.removeMember("$");
+                bindings.removeMember("_");
+            }
+        }
+        return new JsValue(fn.execute(JsValue.fromJava(underscore), JsValue.fromJava(dollar)));
     }
 
     public void put(String key, Object value) {
@@ -0,0 +1,110 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2022 Karate Labs Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.graal;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import org.graalvm.polyglot.Value;
+
+/**
+ * read-through view over a js array, elements are converted on first read and
+ * the whole list is copied only on the first write, must not leave the thread
+ * (and js context) that created it, see JsValue.materialize()
+ */
+class JsListView extends AbstractList<Object> implements RandomAccess {
+
+    private static final Object UNREAD = new Object();
+
+    private final Value value;
+    private final int size; // snapshot, like the eager copy
+    private Object[] items;
+    private List<Object> list; // once materialized
+
+    JsListView(Value value) {
+        this.value = value;
+        size = (int) value.getArraySize();
+    }
+
+    @Override
+    public int size() {
+        return list == null ? size : list.size();
+    }
+
+    @Override
+    public Object get(int index) {
+        if (list != null) {
+            return list.get(index);
+        }
+        Objects.checkIndex(index, size);
+        if (items == null) {
+            items = new Object[size];
+            Arrays.fill(items, UNREAD);
+        }
+        Object o = items[index];
+        if (o == UNREAD) {
+            o = JsValue.toJavaLazy(value.getArrayElement(index));
+            items[index] = o;
+        }
+        return o;
+    }
+
+    @Override
+    public Object set(int index, Object element) {
+        return materialize().set(index, element);
+    }
+
+    @Override
+    public void add(int index, Object element) {
+        materialize().add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public Object remove(int index) {
+        Object o = materialize().remove(index);
+        modCount++;
+        return o;
+    }
+
+    boolean isMaterialized() {
+        return list != null;
+    }
+
+    List<Object> materialize() {
+        if (list == null) {
+            List<Object> temp = new ArrayList(size);
+            for (int i = 0; i < size; i++) {
+                temp.add(JsValue.materialize(get(i)));
+            }
+            list = temp;
+            items = null;
+        }
+        return list;
+    }
+
+}
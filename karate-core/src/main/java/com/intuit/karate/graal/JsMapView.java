@@ -0,0 +1,113 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2022 Karate Labs Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.graal;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.graalvm.polyglot.Value;
+
+/**
+ * read-through view over a js object, members are converted on first read and
+ * the whole map is copied on the first write or iteration, must not leave the
+ * thread (and js context) that created it, see JsValue.materialize()
+ */
+class JsMapView extends AbstractMap<String, Object> {
+
+    private final Value value;
+    private Map<String, Object> members; // converted so far
+    private Map<String, Object> map; // once materialized
+
+    JsMapView(Value value) {
+        this.value = value;
+    }
+
+    @Override
+    public int size() {
+        return map == null ? value.getMemberKeys().size() : map.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (map != null) {
+            return map.containsKey(key);
+        }
+        return key instanceof String && value.hasMember((String) key);
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (map != null) {
+            return map.get(key);
+        }
+        if (!containsKey(key)) {
+            return null;
+        }
+        if (members == null) {
+            members = new HashMap();
+        }
+        String name = (String) key;
+        if (members.containsKey(name)) {
+            return members.get(name);
+        }
+        Object o = JsValue.toJavaLazy(value.getMember(name));
+        members.put(name, o);
+        return o;
+    }
+
+    @Override
+    public Object put(String key, Object o) {
+        return materialize().put(key, o);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        return materialize().remove(key);
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return materialize().entrySet();
+    }
+
+    boolean isMaterialized() {
+        return map != null;
+    }
+
+    Map<String, Object> materialize() {
+        if (map == null) {
+            Set<String> keys = value.getMemberKeys();
+            Map<String, Object> temp = new LinkedHashMap(keys.size());
+            for (String key : keys) {
+                temp.put(key, JsValue.materialize(get(key)));
+            }
+            map = temp;
+            members = null;
+        }
+        return map;
+    }
+
+}
@@ -81,11 +81,11 @@ public class JsValue {
                 if (o instanceof JsXml) {
                     value = ((JsXml) o).getNode();
                     type = Type.XML;
-                } else if (o instanceof JsMap) {
-                    value = ((JsMap) o).getMap();
+                } else if (o instanceof JsMap) { // fast path, no conversion
+                    value = materialize(((JsMap) o).getMap());
                     type = Type.OBJECT;
                 } else if (o instanceof JsList) {
-                    value = ((JsList) o).getList();
+                    value = materialize(((JsList) o).getList());
                     type = Type.ARRAY;
                 } else if (o instanceof ProxyExecutable) {
                     value = o;
@@ -226,15 +226,52 @@ public class JsValue {
         return new JsValue(v).getValue();
     }
 
+    /**
+     * like toJava() but js arrays and objects become read-through views that
+     * are only copied on write, use only when the result is consumed and
+     * discarded on the current thread, a Variable always holds a copy
+     */
+    public static Object toJavaLazy(Value v) {
+        if (!v.isHostObject() && !v.isProxyObject()) {
+            if (v.hasArrayElements()) {
+                return new JsListView(v);
+            } else if (v.hasMembers() && !v.canExecute()) {
+                return new JsMapView(v);
+            }
+        }
+        return new JsValue(v).value;
+    }
+
+    public static boolean isView(Object o) {
+        if (o instanceof JsListView) {
+            return !((JsListView) o).isMaterialized();
+        } else if (o instanceof JsMapView) {
+            return !((JsMapView) o).isMaterialized();
+        } else {
+            return false;
+        }
+    }
+
+    // call wherever a value can leave the current thread or js context
+    public static Object materialize(Object o) {
+        if (o instanceof JsListView) {
+            return ((JsListView) o).materialize();
+        } else if (o instanceof JsMapView) {
+            return ((JsMapView) o).materialize();
+        } else {
+            return o;
+        }
+    }
+
     public static Object unWrap(Object o) {
         if (o instanceof JsXml) {
             return ((JsXml) o).getNode();
         } else if (o instanceof JsMap) {
-            return ((JsMap) o).getMap();
+            return materialize(((JsMap) o).getMap());
         } else if (o instanceof JsList) {
-            return ((JsList) o).getList();
+            return materialize(((JsList) o).getList());
         } else {
-            return o;
+            return materialize(o);
         }
     }
 
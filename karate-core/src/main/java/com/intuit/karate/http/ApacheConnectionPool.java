@@ -0,0 +1,184 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2022 Karate Labs Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.http;
+
+import com.intuit.karate.core.Config;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * long-lived connection pools for the apache http client, one per distinct
+ * combination of the config values that affect how a connection is made (ssl,
+ * proxy, timeouts) so that clients built for different scenarios share tcp
+ * and tls connections instead of opening new ones for every request
+ *
+ * idle and expired connections are closed by a single background thread
+ */
+public class ApacheConnectionPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApacheConnectionPool.class);
+
+    public static final int MAX_POOLS = 100;
+    private static final long EVICT_INTERVAL_MILLIS = 5000;
+
+    private static final Map<List<Object>, Pool> POOLS = new ConcurrentHashMap();
+
+    private static ScheduledExecutorService evictor;
+
+    private ApacheConnectionPool() {
+        // only static methods
+    }
+
+    private static class Pool {
+
+        final PoolingHttpClientConnectionManager manager;
+        final int idleTimeout;
+
+        Pool(PoolingHttpClientConnectionManager manager, int idleTimeout) {
+            this.manager = manager;
+            this.idleTimeout = idleTimeout;
+        }
+
+    }
+
+    private static List<Object> toKey(Config config) {
+        return Arrays.asList(
+                config.isSslEnabled(), config.getSslAlgorithm(), config.isSslTrustAll(),
+                config.getSslKeyStore(), config.getSslKeyStorePassword(), config.getSslKeyStoreType(),
+                config.getSslTrustStore(), config.getSslTrustStorePassword(), config.getSslTrustStoreType(),
+                config.getProxyUri(), config.getConnectTimeout(), config.getReadTimeout(),
+                config.getConnectionPoolMaxTotal(), config.getConnectionPoolMaxPerRoute(),
+                config.getConnectionPoolIdleTimeout(), config.getConnectionPoolTimeToLive());
+    }
+
+    // returns null if pooling is disabled or there are too many distinct configs
+    public static PoolingHttpClientConnectionManager get(Config config, Supplier<SSLConnectionSocketFactory> sslFactory) {
+        if (!config.isConnectionPoolEnabled()) {
+            return null;
+        }
+        List<Object> key = toKey(config);
+        Pool pool = POOLS.get(key);
+        if (pool != null) {
+            return pool.manager;
+        }
+        synchronized (POOLS) {
+            pool = POOLS.get(key); // retry
+            if (pool != null) {
+                return pool.manager;
+            }
+            if (POOLS.size() >= MAX_POOLS) {
+                logger.warn("too many distinct http configs, connections will not be pooled");
+                return null;
+            }
+            pool = new Pool(create(config, sslFactory), config.getConnectionPoolIdleTimeout());
+            POOLS.put(key, pool);
+            if (evictor == null) {
+                evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "karate-http-evictor");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                evictor.scheduleWithFixedDelay(ApacheConnectionPool::evict, EVICT_INTERVAL_MILLIS, EVICT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            logger.debug("created http connection pool, total pools: {}", POOLS.size());
+            return pool.manager;
+        }
+    }
+
+    private static PoolingHttpClientConnectionManager create(Config config, Supplier<SSLConnectionSocketFactory> sslFactory) {
+        SSLConnectionSocketFactory socketFactory = config.isSslEnabled() ? sslFactory.get() : SSLConnectionSocketFactory.getSystemSocketFactory();
+        Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", socketFactory)
+                .build();
+        PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(registry,
+                null, null, null, config.getConnectionPoolTimeToLive(), TimeUnit.MILLISECONDS);
+        manager.setMaxTotal(config.getConnectionPoolMaxTotal());
+        manager.setDefaultMaxPerRoute(config.getConnectionPoolMaxPerRoute());
+        manager.setDefaultSocketConfig(SocketConfig.custom().setSoTimeout(config.getReadTimeout()).build());
+        manager.setValidateAfterInactivity(1000); // servers (e.g. mocks) may have closed the connection
+        return manager;
+    }
+
+    private static void evict() {
+        for (Pool pool : POOLS.values()) {
+            try {
+                pool.manager.closeExpiredConnections();
+                if (pool.idleTimeout > 0) {
+                    pool.manager.closeIdleConnections(pool.idleTimeout, TimeUnit.MILLISECONDS);
+                }
+            } catch (Exception e) {
+                logger.warn("http connection eviction failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    // totals across all pools, meant for hooks and perf reporting
+    public static Map<String, Object> getStats() {
+        int leased = 0, available = 0, pending = 0, max = 0;
+        for (Pool pool : POOLS.values()) {
+            PoolStats stats = pool.manager.getTotalStats();
+            leased += stats.getLeased();
+            available += stats.getAvailable();
+            pending += stats.getPending();
+            max += stats.getMax();
+        }
+        Map<String, Object> map = new HashMap(5);
+        map.put("pools", POOLS.size());
+        map.put("leased", leased);
+        map.put("available", available);
+        map.put("pending", pending);
+        map.put("max", max);
+        return map;
+    }
+
+    public static int size() {
+        return POOLS.size();
+    }
+
+    public static void clear() {
+        synchronized (POOLS) {
+            POOLS.values().forEach(pool -> pool.manager.shutdown());
+            POOLS.clear();
+        }
+    }
+
+}
@@ -83,6 +83,7 @@ import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.LaxRedirectStrategy;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.impl.conn.SystemDefaultRoutePlanner;
 import org.apache.http.impl.cookie.DefaultCookieSpec;
 import org.apache.http.protocol.HttpContext;
@@ -102,6 +103,7 @@ public class ApacheHttpClient implements HttpClient, HttpRequestInterceptor {
 
     private HttpClientBuilder clientBuilder;
     private CookieStore cookieStore;
+    private CloseableHttpClient pooledClient; // null if pooling is disabled
 
     public static class LenientCookieSpec extends DefaultCookieSpec {
 
@@ -153,44 +155,19 @@ public class ApacheHttpClient implements HttpClient, HttpRequestInterceptor {
         clientBuilder.setDefaultCookieStore(cookieStore);
         clientBuilder.setDefaultCookieSpecRegistry(LenientCookieSpec.registry());
         clientBuilder.useSystemProperties();
-        if (config.isSslEnabled()) {
-            // System.setProperty("jsse.enableSNIExtension", "false");
-            String algorithm = config.getSslAlgorithm(); // could be null
-            KeyStore trustStore = engine.getKeyStore(config.getSslTrustStore(), config.getSslTrustStorePassword(), config.getSslTrustStoreType());
-            KeyStore keyStore = engine.getKeyStore(config.getSslKeyStore(), config.getSslKeyStorePassword(), config.getSslKeyStoreType());
-            SSLContext sslContext;
-            try {
-                SSLContextBuilder builder = SSLContexts.custom()
-                        .setProtocol(algorithm); // will default to TLS if null
-                if (trustStore == null && config.isSslTrustAll()) {
-                    builder = builder.loadTrustMaterial(new TrustAllStrategy());
-                } else {
-                    if (config.isSslTrustAll()) {
-                        builder = builder.loadTrustMaterial(trustStore, new TrustSelfSignedStrategy());
-                    } else {
-                        builder = builder.loadTrustMaterial(trustStore, null); // will use system / java default
-                    }
-                }
-                if (keyStore != null) {
-                    char[] keyPassword = config.getSslKeyStorePassword() == null ? null : config.getSslKeyStorePassword().toCharArray();
-                    builder = builder.loadKeyMaterial(keyStore, keyPassword);
-                }
-                sslContext = builder.build();
-                SSLConnectionSocketFactory socketFactory;
-                if (keyStore != null) {
-                    socketFactory = new SSLConnectionSocketFactory(sslContext, new NoopHostnameVerifier());
-                } else {
-                    socketFactory = new LenientSslConnectionSocketFactory(sslContext, new NoopHostnameVerifier());
-                }
-                clientBuilder.setSSLSocketFactory(socketFactory);
-            } catch (Exception e) {
-                logger.error("ssl context init failed: {}", e.getMessage());
-                throw new RuntimeException(e);
-            }
+        PoolingHttpClientConnectionManager connectionManager = ApacheConnectionPool.get(config, () -> createSslSocketFactory(config));
+        if (connectionManager != null) {
+            // the pool has the ssl and socket config, and it outlives this client
+            clientBuilder.setConnectionManager(connectionManager);
+            clientBuilder.setConnectionManagerShared(true);
+        } else if (config.isSslEnabled()) {
+            clientBuilder.setSSLSocketFactory(createSslSocketFactory(config));
         }
         RequestConfig.Builder configBuilder = RequestConfig.custom()
                 .setCookieSpec(LenientCookieSpec.KARATE)
                 .setConnectTimeout(config.getConnectTimeout())
+                // so that an exhausted pool fails the request instead of blocking forever
+                .setConnectionRequestTimeout(config.getConnectTimeout())
                 .setSocketTimeout(config.getReadTimeout());
         if (config.getLocalAddress() != null) {
             try {
@@ -247,6 +224,41 @@ public class ApacheHttpClient implements HttpClient, HttpRequestInterceptor {
             }
         }
         clientBuilder.addInterceptorLast(this);
+        pooledClient = connectionManager == null ? null : clientBuilder.build();
+    }
+
+    private SSLConnectionSocketFactory createSslSocketFactory(Config config) {
+        // System.setProperty("jsse.enableSNIExtension", "false");
+        String algorithm = config.getSslAlgorithm(); // could be null
+        KeyStore trustStore = engine.getKeyStore(config.getSslTrustStore(), config.getSslTrustStorePassword(), config.getSslTrustStoreType());
+        KeyStore keyStore = engine.getKeyStore(config.getSslKeyStore(), config.getSslKeyStorePassword(), config.getSslKeyStoreType());
+        SSLContext sslContext;
+        try {
+            SSLContextBuilder builder = SSLContexts.custom()
+                    .setProtocol(algorithm); // will default to TLS if null
+            if (trustStore == null && config.isSslTrustAll()) {
+                builder = builder.loadTrustMaterial(new TrustAllStrategy());
+            } else {
+                if (config.isSslTrustAll()) {
+                    builder = builder.loadTrustMaterial(trustStore, new TrustSelfSignedStrategy());
+                } else {
+                    builder = builder.loadTrustMaterial(trustStore, null); // will use system / java default
+                }
+            }
+            if (keyStore != null) {
+                char[] keyPassword = config.getSslKeyStorePassword() == null ? null : config.getSslKeyStorePassword().toCharArray();
+                builder = builder.loadKeyMaterial(keyStore, keyPassword);
+            }
+            sslContext = builder.build();
+            if (keyStore != null) {
+                return new SSLConnectionSocketFactory(sslContext, new NoopHostnameVerifier());
+            } else {
+                return new LenientSslConnectionSocketFactory(sslContext, new NoopHostnameVerifier());
+            }
+        } catch (Exception e) {
+            logger.error("ssl context init failed: {}", e.getMessage());
+            throw new RuntimeException(e);
+        }
     }
 
     @Override
@@ -289,24 +301,29 @@ public class ApacheHttpClient implements HttpClient, HttpRequestInterceptor {
         }        
         CloseableHttpResponse httpResponse;
         byte[] bytes;
-        try (CloseableHttpClient client = clientBuilder.build()) {
-            httpResponse = client.execute(requestBuilder.build());
-            HttpEntity responseEntity = httpResponse.getEntity();
-            if (responseEntity == null || responseEntity.getContent() == null) {
-                bytes = Constants.ZERO_BYTES;
-            } else {
-                InputStream is = responseEntity.getContent();
-                Header contentEncoding = httpResponse.getFirstHeader(HttpConstants.HDR_CONTENT_ENCODING);
-                if (contentEncoding != null) {
-                    String encoding = contentEncoding.getValue();
-                    if ("br".equalsIgnoreCase(encoding)) {
-                        is = new BrotliInputStream(is);
+        // a client that does not use the shared pool is closed after each request
+        try (CloseableHttpClient client = pooledClient == null ? clientBuilder.build() : null) {
+            httpResponse = (client == null ? pooledClient : client).execute(requestBuilder.build());
+            // always close, else a pooled connection is never returned to the pool
+            try {
+                HttpEntity responseEntity = httpResponse.getEntity();
+                if (responseEntity == null || responseEntity.getContent() == null) {
+                    bytes = Constants.ZERO_BYTES;
+                } else {
+                    InputStream is = responseEntity.getContent();
+                    Header contentEncoding = httpResponse.getFirstHeader(HttpConstants.HDR_CONTENT_ENCODING);
+                    if (contentEncoding != null) {
+                        String encoding = contentEncoding.getValue();
+                        if ("br".equalsIgnoreCase(encoding)) {
+                            is = new BrotliInputStream(is);
+                        }
                     }
+                    bytes = FileUtils.toBytes(is);
                 }
-                bytes = FileUtils.toBytes(is);
+                request.setEndTime(System.currentTimeMillis());
+            } finally {
+                httpResponse.close();
             }
-            request.setEndTime(System.currentTimeMillis());
-            httpResponse.close();
         } catch (Exception e) {
             if (e instanceof ClientProtocolException && e.getCause() != null) { // better error message                
                 throw new RuntimeException(e.getCause());
@@ -29,8 +29,10 @@ import com.intuit.karate.StringUtils;
 import com.intuit.karate.core.Config;
 import com.linecorp.armeria.client.ClientRequestContext;
 import com.linecorp.armeria.client.DecoratingHttpClientFunction;
+import com.linecorp.armeria.client.RequestOptions;
 import com.linecorp.armeria.client.WebClient;
 import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpData;
 import com.linecorp.armeria.common.HttpHeaderNames;
 import com.linecorp.armeria.common.HttpMethod;
 import com.linecorp.armeria.common.HttpResponse;
@@ -40,11 +42,14 @@ import com.linecorp.armeria.common.RequestHeadersBuilder;
 import com.linecorp.armeria.common.ResponseHeaders;
 import com.linecorp.armeria.common.logging.RequestLogProperty;
 import com.linecorp.armeria.server.ServiceRequestContext;
+import io.netty.util.AttributeKey;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Callable;
-import java.util.concurrent.Future;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  *
@@ -59,6 +64,32 @@ public class ArmeriaHttpClient implements HttpClient, DecoratingHttpClientFuncti
     private HttpRequest request;
     private RequestContext requestContext;     
 
+    private static final AttributeKey<ArmeriaHttpClient> CLIENT = AttributeKey.valueOf(ArmeriaHttpClient.class, "CLIENT");
+    private static final AttributeKey<HttpRequest> REQUEST = AttributeKey.valueOf(ArmeriaHttpClient.class, "REQUEST");
+
+    private static final DecoratingHttpClientFunction DECORATOR = (delegate, ctx, req) -> {
+        ArmeriaHttpClient client = ctx.attr(CLIENT);
+        return client == null ? delegate.execute(ctx, req) : client.execute(delegate, ctx, req);
+    };
+
+    // web clients are thread-safe and re-usable, so one per base url
+    private static final int WEB_CLIENTS_MAX_SIZE = 1000;
+    private static final Map<String, WebClient> WEB_CLIENTS = new ConcurrentHashMap();
+
+    private static WebClient getWebClient(String urlBase) {
+        WebClient webClient = WEB_CLIENTS.get(urlBase);
+        if (webClient == null) {
+            webClient = WebClient.builder(urlBase).decorator(DECORATOR).build();
+            if (WEB_CLIENTS.size() < WEB_CLIENTS_MAX_SIZE) {
+                WebClient existing = WEB_CLIENTS.putIfAbsent(urlBase, webClient);
+                if (existing != null) {
+                    webClient = existing;
+                }
+            }
+        }
+        return webClient;
+    }
+
     public void setRequestContext(RequestContext requestContext) {
         this.requestContext = requestContext;
     }
@@ -71,29 +102,40 @@ public class ArmeriaHttpClient implements HttpClient, DecoratingHttpClientFuncti
 
     @Override
     public Response invoke(HttpRequest request) {
+        try {
+            return invokeAsync(request).join();
+        } catch (CompletionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Response> invokeAsync(HttpRequest request) {
         this.request = request;
         HttpMethod httpMethod = HttpMethod.valueOf(request.getMethod());
         StringUtils.Pair urlAndPath = HttpUtils.parseUriIntoUrlBaseAndPath(request.getUrl());
-        WebClient webClient = WebClient.builder(urlAndPath.left).decorator(this).build();
+        WebClient webClient = getWebClient(urlAndPath.left);
         RequestHeadersBuilder rhb = RequestHeaders.builder(httpMethod, urlAndPath.right);
         Map<String, List<String>> headers = request.getHeaders();
         if (headers != null) {
             headers.forEach((k, v) -> rhb.add(k, v));
         }
         final byte[] body = request.getBody() == null ? Constants.ZERO_BYTES : request.getBody();
-        AggregatedHttpResponse ahr;
-        Callable<AggregatedHttpResponse> callable = () -> webClient.execute(rhb.build(), body).aggregate().join();
+        // the decorator is shared, so the state for this call goes on the request context
+        RequestOptions options = RequestOptions.builder().attr(CLIENT, this).attr(REQUEST, request).build();
+        Supplier<CompletableFuture<AggregatedHttpResponse>> supplier
+                = () -> webClient.execute(com.linecorp.armeria.common.HttpRequest.of(rhb.build(), HttpData.wrap(body)), options).aggregate();
         ServiceRequestContext src = requestContext == null ? null : requestContext.root();
-        try {
-            if (src == null) {
-                ahr = callable.call();
-            } else {
-                Future<AggregatedHttpResponse> future = src.blockingTaskExecutor().submit(callable);
-                ahr = future.get();
-            }
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+        CompletableFuture<AggregatedHttpResponse> future;
+        if (src == null) {
+            future = supplier.get();
+        } else { // the blocking task thread is only used to start the call, not to wait for it
+            future = CompletableFuture.supplyAsync(supplier, src.blockingTaskExecutor()).thenCompose(f -> f);
         }
+        return future.thenApply(ahr -> toResponse(request, ahr));
+    }
+
+    private Response toResponse(HttpRequest request, AggregatedHttpResponse ahr) {
         ResponseHeaders rh = ahr.headers();
         Map<String, List<String>> responseHeaders = new LinkedHashMap(rh.size());
         for (CharSequence name : rh.names()) {
@@ -120,6 +162,7 @@ public class ArmeriaHttpClient implements HttpClient, DecoratingHttpClientFuncti
     @Override
     public HttpResponse execute(com.linecorp.armeria.client.HttpClient delegate, ClientRequestContext ctx,
             com.linecorp.armeria.common.HttpRequest req) throws Exception {
+        HttpRequest request = ctx.hasAttr(REQUEST) ? ctx.attr(REQUEST) : this.request;
         ctx.log().whenAvailable(RequestLogProperty.REQUEST_HEADERS).thenAccept(log -> {
             request.setStartTime(log.requestStartTimeMillis());
             RequestHeaders rh = log.requestHeaders();
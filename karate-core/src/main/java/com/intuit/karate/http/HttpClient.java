@@ -24,6 +24,7 @@
 package com.intuit.karate.http;
 
 import com.intuit.karate.core.Config;
+import java.util.concurrent.CompletableFuture;
 
 /**
  *
@@ -37,4 +38,13 @@ public interface HttpClient {
 
     Response invoke(HttpRequest request);
 
+    // clients that are non-blocking should override this
+    default CompletableFuture<Response> invokeAsync(HttpRequest request) {
+        try {
+            return CompletableFuture.completedFuture(invoke(request));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
 }
@@ -28,6 +28,7 @@ import com.intuit.karate.JsonUtils;
 import com.intuit.karate.Logger;
 import com.intuit.karate.core.Config;
 import com.intuit.karate.core.Variable;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
@@ -69,19 +70,51 @@ public class HttpLogger {
             return;
         }
         String text;
-        if (config != null && needsPrettyLogging(config, request)) {
-            Object converted = JsonUtils.fromBytes(body, false, rt);
-            Variable v = new Variable(converted);
-            text = v.getAsPrettyString();
+        int maxSize = config == null ? -1 : config.getLogBodyMaxSize();
+        if (maxSize >= 0 && body.length > maxSize) { // don't even try to pretty-print
+            if (logModifier == null) {
+                text = new String(body, 0, utf8Boundary(body, maxSize), StandardCharsets.UTF_8);
+            } else { // modify the whole body, what is masked may straddle the cut
+                text = modify(logModifier, uri, FileUtils.toString(body), request);
+                text = text.substring(0, charBoundary(text, maxSize));
+            }
+            text = text + "\n... [truncated, " + body.length + " bytes]";
         } else {
-            text = FileUtils.toString(body);
-        }
-        if (logModifier != null) {
-            text = request ? logModifier.request(uri, text) : logModifier.response(uri, text);
+            if (config != null && needsPrettyLogging(config, request)) {
+                Object converted = JsonUtils.fromBytes(body, false, rt);
+                Variable v = new Variable(converted);
+                text = v.getAsPrettyString();
+            } else {
+                text = FileUtils.toString(body);
+            }
+            if (logModifier != null) {
+                text = modify(logModifier, uri, text, request);
+            }
         }
         sb.append(text);
     }
 
+    private static String modify(HttpLogModifier logModifier, String uri, String text, boolean request) {
+        return request ? logModifier.request(uri, text) : logModifier.response(uri, text);
+    }
+
+    // the largest length up to max that does not split a multi-byte utf-8 character
+    static int utf8Boundary(byte[] bytes, int max) {
+        int end = max;
+        while (end > 0 && end < bytes.length && (bytes[end] & 0xC0) == 0x80) { // continuation byte
+            end--;
+        }
+        return end;
+    }
+
+    // the largest length up to max that does not split a surrogate pair
+    static int charBoundary(String text, int max) {
+        if (text.length() <= max) {
+            return text.length();
+        }
+        return max > 0 && Character.isHighSurrogate(text.charAt(max - 1)) ? max - 1 : max;
+    }
+
     private static boolean needsPrettyLogging(Config config, boolean request) {
         return logPrettyRequest(config, request) || logPrettyResponse(config, request);
     }
@@ -115,6 +148,9 @@ public class HttpLogger {
 
     public void logRequest(Config config, HttpRequest request) {
         requestCount++;
+        if (!logger.isDebugEnabled()) { // no sink needs it, avoid formatting the body
+            return;
+        }
         String uri = request.getUrl();
         HttpLogModifier requestModifier = logModifier(config, uri);
         String maskedUri = requestModifier == null ? uri : requestModifier.uri(uri);
@@ -142,6 +178,9 @@ public class HttpLogger {
         long startTime = request.getStartTime();
         long elapsedTime = request.getEndTime() - startTime;
         response.setResponseTime(elapsedTime);
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
         StringBuilder sb = new StringBuilder();
         String uri = request.getUrl();
         HttpLogModifier responseModifier = logModifier(config, uri);
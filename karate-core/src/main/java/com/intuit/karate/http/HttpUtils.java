@@ -102,32 +102,7 @@ public class HttpUtils {
     }
 
     public static Map<String, String> parseUriPattern(String pattern, String url) {
-        int qpos = url.indexOf('?');
-        if (qpos != -1) {
-            url = url.substring(0, qpos);
-        }
-        List<String> leftList = StringUtils.split(pattern, '/', false);
-        List<String> rightList = StringUtils.split(url, '/', false);
-        int leftSize = leftList.size();
-        int rightSize = rightList.size();
-        if (rightSize != leftSize) {
-            return null;
-        }
-        Map<String, String> map = new LinkedHashMap<>(leftSize);
-        for (int i = 0; i < leftSize; i++) {
-            String left = leftList.get(i);
-            String right = rightList.get(i);
-            if (left.equals(right)) {
-                continue;
-            }
-            if (left.startsWith("{") && left.endsWith("}")) {
-                left = left.substring(1, left.length() - 1);
-                map.put(left, right);
-            } else {
-                return null; // match failed
-            }
-        }
-        return map;
+        return UriPatternTrie.parse(pattern, url);
     }
 
     public static String normaliseUriPath(String uri) {
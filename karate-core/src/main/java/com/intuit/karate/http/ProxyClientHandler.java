@@ -61,6 +61,7 @@ public class ProxyClientHandler extends SimpleChannelInboundHandler<FullHttpRequ
     protected final ResponseFilter responseFilter;
     private final Map<String, ProxyRemoteHandler> REMOTE_HANDLERS = new ConcurrentHashMap();
     private final Object LOCK = new Object();
+    private boolean proceed; // guarded by LOCK, so that an early notify is not lost
     
     private ProxyRemoteHandler remoteHandler;
     protected Channel clientChannel;
@@ -145,6 +146,7 @@ public class ProxyClientHandler extends SimpleChannelInboundHandler<FullHttpRequ
                     logger.trace("** ready: {} - {}", pc, cf.channel());
                 }
             } else {
+                unlockAndProceed();
                 HttpUtils.flushAndClose(clientChannel);
             }
         });
@@ -155,12 +157,16 @@ public class ProxyClientHandler extends SimpleChannelInboundHandler<FullHttpRequ
 
     private void lockAndWait() throws Exception {
         synchronized (LOCK) {
-            LOCK.wait();
+            while (!proceed) {
+                LOCK.wait();
+            }
+            proceed = false;
         }
     }
 
     protected void unlockAndProceed() {
         synchronized (LOCK) {
+            proceed = true;
             LOCK.notify();
         }
     }
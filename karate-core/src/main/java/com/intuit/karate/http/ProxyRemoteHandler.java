@@ -29,6 +29,8 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.util.ReferenceCountUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -74,6 +76,8 @@ public class ProxyRemoteHandler extends SimpleChannelInboundHandler<FullHttpResp
                 logger.debug("<<<< {}", response);
             }            
         }        
+        // we close the connection, so tell the client not to re-use it
+        response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
         clientChannel.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
     }
 
@@ -0,0 +1,342 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2022 Karate Labs Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.http;
+
+import com.intuit.karate.StringUtils;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * index of uri patterns such as /cats/{id}, one node per path segment, with
+ * the same matching rules as HttpUtils.parseUriPattern()
+ *
+ * the path is walked in place and never split, so a lookup does not allocate
+ * unless the captured params are asked for
+ */
+public class UriPatternTrie<T> {
+
+    private static class Node<T> {
+
+        final String segment; // null for root and wildcard nodes
+        final int hash;
+        Node<T>[] literals; // open addressing, keyed by segment
+        int literalCount;
+        Node<T> wildcard;
+        List<Entry<T>> entries;
+
+        Node(String segment) {
+            this.segment = segment;
+            this.hash = segment == null ? 0 : segment.hashCode();
+        }
+
+        Node<T> literal(String path, int start, int end) {
+            if (literals == null) {
+                return null;
+            }
+            int mask = literals.length - 1;
+            for (int i = hash(path, start, end) & mask;; i = (i + 1) & mask) {
+                Node<T> node = literals[i];
+                if (node == null) {
+                    return null;
+                }
+                if (node.segment.length() == end - start && path.regionMatches(start, node.segment, 0, end - start)) {
+                    return node;
+                }
+            }
+        }
+
+        Node<T> addLiteral(String segment) {
+            Node<T> node = literal(segment, 0, segment.length());
+            if (node != null) {
+                return node;
+            }
+            if (literals == null || (literalCount + 1) * 2 > literals.length) {
+                Node<T>[] old = literals;
+                literals = new Node[old == null ? 4 : old.length * 2];
+                if (old != null) {
+                    for (Node<T> n : old) {
+                        if (n != null) {
+                            put(n);
+                        }
+                    }
+                }
+            }
+            node = new Node(segment);
+            put(node);
+            literalCount++;
+            return node;
+        }
+
+        private void put(Node<T> node) {
+            int mask = literals.length - 1;
+            int i = node.hash & mask;
+            while (literals[i] != null) {
+                i = (i + 1) & mask;
+            }
+            literals[i] = node;
+        }
+
+    }
+
+    private static class Entry<T> {
+
+        final String pattern;
+        final T value;
+        final String[] names; // param name by segment index, null for literals
+
+        Entry(String pattern, T value, String[] names) {
+            this.pattern = pattern;
+            this.value = value;
+            this.names = names;
+        }
+
+    }
+
+    // can be re-used across lookups on the same thread, so that a lookup does not allocate
+    public static class Result<T> {
+
+        private String path;
+        private Entry<T> entry;
+        private int[] starts = new int[8];
+        private int[] ends = new int[8];
+
+        public boolean isMatched() {
+            return entry != null;
+        }
+
+        public String getPattern() {
+            return entry == null ? null : entry.pattern;
+        }
+
+        public T getValue() {
+            return entry == null ? null : entry.value;
+        }
+
+        public String getParam(String name) {
+            if (entry != null) {
+                for (int i = 0; i < entry.names.length; i++) {
+                    if (name.equals(entry.names[i])) {
+                        return path.substring(starts[i], ends[i]);
+                    }
+                }
+            }
+            return null;
+        }
+
+        public Map<String, String> getParams() {
+            if (entry == null) {
+                return null;
+            }
+            Map<String, String> map = new LinkedHashMap(entry.names.length);
+            for (int i = 0; i < entry.names.length; i++) {
+                if (entry.names[i] != null) {
+                    map.put(entry.names[i], path.substring(starts[i], ends[i]));
+                }
+            }
+            return map;
+        }
+
+        private void segment(int index, int start, int end) {
+            if (index == starts.length) {
+                int size = index * 2;
+                int[] temp = new int[size];
+                System.arraycopy(starts, 0, temp, 0, index);
+                starts = temp;
+                temp = new int[size];
+                System.arraycopy(ends, 0, temp, 0, index);
+                ends = temp;
+            }
+            starts[index] = start;
+            ends[index] = end;
+        }
+
+    }
+
+    private final Node<T> root = new Node(null);
+    private int size;
+
+    static boolean isWildcard(String segment) {
+        return segment.startsWith("{") && segment.endsWith("}");
+    }
+
+    // same as String.hashCode() but over a region
+    static int hash(String s, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return h;
+    }
+
+    // where the path ends, ignoring any query string
+    static int pathEnd(String path) {
+        int pos = path.indexOf('?');
+        return pos == -1 ? path.length() : pos;
+    }
+
+    // start of the next non-empty segment, so that repeated and trailing slashes are ignored
+    static int segmentStart(String path, int pos, int end) {
+        while (pos < end && path.charAt(pos) == '/') {
+            pos++;
+        }
+        return pos;
+    }
+
+    static int segmentEnd(String path, int pos, int end) {
+        int next = path.indexOf('/', pos);
+        return next == -1 || next > end ? end : next;
+    }
+
+    public void add(String pattern, T value) {
+        Node<T> node = root;
+        List<String> segments = StringUtils.split(pattern, '/', false);
+        String[] names = new String[segments.size()];
+        for (int i = 0; i < names.length; i++) {
+            String segment = segments.get(i);
+            if (isWildcard(segment)) {
+                names[i] = segment.substring(1, segment.length() - 1);
+                if (node.wildcard == null) {
+                    node.wildcard = new Node(null);
+                }
+                node = node.wildcard;
+            } else {
+                node = node.addLiteral(segment);
+            }
+        }
+        if (node.entries == null) {
+            node.entries = new ArrayList(1);
+        }
+        node.entries.add(new Entry(pattern, value, names));
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // all values whose pattern matches, in no particular order
+    public List<T> find(String path) {
+        List<T> results = new ArrayList();
+        collect(root, path, 0, pathEnd(path), results);
+        return results;
+    }
+
+    private static <T> void collect(Node<T> node, String path, int pos, int end, List<T> results) {
+        int start = segmentStart(path, pos, end);
+        if (start == end) {
+            if (node.entries != null) {
+                node.entries.forEach(e -> results.add(e.value));
+            }
+            return;
+        }
+        int next = segmentEnd(path, start, end);
+        Node<T> child = node.literal(path, start, next);
+        if (child != null) {
+            collect(child, path, next, end, results);
+        }
+        if (node.wildcard != null) {
+            collect(node.wildcard, path, next, end, results);
+        }
+    }
+
+    // the value of the most specific pattern that matches, or null
+    public T lookup(String path) {
+        Entry<T> entry = lookup(root, path, 0, pathEnd(path), 0, null);
+        return entry == null ? null : entry.value;
+    }
+
+    // when more than one pattern matches, literal segments win over params
+    // from left to right, so /cats/new is preferred over /cats/{id}
+    public boolean lookup(String path, Result<T> result) {
+        result.path = path;
+        result.entry = lookup(root, path, 0, pathEnd(path), 0, result);
+        return result.entry != null;
+    }
+
+    private static <T> Entry<T> lookup(Node<T> node, String path, int pos, int end, int index, Result<T> result) {
+        int start = segmentStart(path, pos, end);
+        if (start == end) {
+            return node.entries == null ? null : node.entries.get(0);
+        }
+        int next = segmentEnd(path, start, end);
+        if (result != null) {
+            result.segment(index, start, next);
+        }
+        Node<T> child = node.literal(path, start, next);
+        if (child != null) {
+            Entry<T> entry = lookup(child, path, next, end, index + 1, result);
+            if (entry != null) {
+                return entry;
+            }
+        }
+        if (node.wildcard != null) {
+            Entry<T> entry = lookup(node.wildcard, path, next, end, index + 1, result);
+            if (entry != null) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    // the params if the path matches a single pattern, or null - which does not allocate
+    public static Map<String, String> parse(String pattern, String path) {
+        int patternEnd = pattern.length();
+        int end = pathEnd(path);
+        int left = segmentStart(pattern, 0, patternEnd);
+        int right = segmentStart(path, 0, end);
+        while (left < patternEnd && right < end) {
+            int leftNext = segmentEnd(pattern, left, patternEnd);
+            int rightNext = segmentEnd(path, right, end);
+            int length = leftNext - left;
+            if (length != rightNext - right || !pattern.regionMatches(left, path, right, length)) {
+                if (length < 2 || pattern.charAt(left) != '{' || pattern.charAt(leftNext - 1) != '}') {
+                    return null;
+                }
+            }
+            left = segmentStart(pattern, leftNext, patternEnd);
+            right = segmentStart(path, rightNext, end);
+        }
+        if (left != patternEnd || right != end) {
+            return null;
+        }
+        // matched, second pass to collect the params
+        Map<String, String> map = new LinkedHashMap();
+        left = segmentStart(pattern, 0, patternEnd);
+        right = segmentStart(path, 0, end);
+        while (left < patternEnd) {
+            int leftNext = segmentEnd(pattern, left, patternEnd);
+            int rightNext = segmentEnd(path, right, end);
+            int length = leftNext - left;
+            if (length != rightNext - right || !pattern.regionMatches(left, path, right, length)) {
+                map.put(pattern.substring(left + 1, leftNext - 1), path.substring(right, rightNext));
+            }
+            left = segmentStart(pattern, leftNext, patternEnd);
+            right = segmentStart(path, rightNext, end);
+        }
+        return map;
+    }
+
+}
@@ -30,18 +30,25 @@ import com.intuit.karate.core.FeatureResult;
 import com.intuit.karate.core.ScenarioResult;
 import com.intuit.karate.core.StepResult;
 import com.intuit.karate.resource.ResourceUtils;
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
-import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.stream.Stream;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
@@ -119,12 +126,48 @@ public class ReportUtils {
         return (double) nanos / MILLION;
     }
 
+    // the json object for the header, with the items appended as an array under the key
+    // one at a time, so that the whole report never has to be in memory at once
+    private static void writeJson(File file, boolean wrapInArray, Map<String, Object> header, String key, Stream<?> items) {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (!parent.exists()) {
+            parent.mkdirs();
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), 64 * 1024)) {
+            if (wrapInArray) {
+                writer.write('[');
+            }
+            String json = JsonUtils.toJson(header);
+            writer.write(json, 0, json.length() - 1); // without the closing brace
+            if (!header.isEmpty()) {
+                writer.write(',');
+            }
+            writer.write(JsonUtils.toJson(key));
+            writer.write(":[");
+            Iterator<?> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                JsonUtils.writeJson(iterator.next(), writer);
+                if (iterator.hasNext()) {
+                    writer.write(',');
+                }
+            }
+            writer.write("]}");
+            if (wrapInArray) {
+                writer.write(']');
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public static File saveKarateJson(String targetDir, FeatureResult result, String fileName) {
         if (fileName == null) {
             fileName = result.getFeature().getKarateJsonFileName();
         }
         File file = new File(targetDir + File.separator + fileName);
-        FileUtils.writeToFile(file, JsonUtils.toJson(result.toKarateJson()));
+        writeJson(file, false, result.toKarateJsonHeader(), "scenarioResults",
+                result.getScenarioResults().stream().map(ScenarioResult::toKarateJson));
         return file;
     }
 
@@ -133,8 +176,8 @@ public class ReportUtils {
             fileName = result.getFeature().getPackageQualifiedName() + ".json";
         }
         File file = new File(targetDir + File.separator + fileName);
-        String json = JsonUtils.toJson(Collections.singletonList(result.toCucumberJson()));
-        FileUtils.writeToFile(file, json);
+        writeJson(file, true, result.toCucumberJsonHeader(), "elements",
+                result.getScenarioResults().stream().flatMap(sr -> sr.toCucumberJsonElements().stream()));
         return file;
     }
 
@@ -28,6 +28,7 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.InputStream;
 import java.net.URI;
+import java.util.Arrays;
 
 /**
  *
@@ -82,6 +83,10 @@ public class JarResource implements Resource {
         return new ByteArrayInputStream(bytes);
     }
 
+    public int getContentHash() {
+        return Arrays.hashCode(bytes);
+    }
+
     @Override
     public boolean equals(Object obj) {
         return relativePath.equals(obj);
@@ -0,0 +1,142 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2022 Karate Labs Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.shell;
+
+import com.intuit.karate.FileUtils;
+import com.intuit.karate.LogAppender;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * keeps at most a fixed number of chars in memory, anything beyond that is
+ * spilled to a temp file so that a chatty scenario does not grow the heap, the
+ * spilled file is handed over as-is via {@link #collectFile()}
+ */
+public class SpillingLogAppender implements LogAppender {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpillingLogAppender.class);
+
+    public static final int DEFAULT_MAX_CHARS = 64 * 1024;
+
+    private final StringBuilder sb = new StringBuilder();
+    private final int maxChars;
+
+    private File file;
+
+    public SpillingLogAppender() {
+        this(DEFAULT_MAX_CHARS);
+    }
+
+    public SpillingLogAppender(int maxChars) {
+        this.maxChars = maxChars;
+    }
+
+    public synchronized boolean isSpilled() {
+        return file != null;
+    }
+
+    private void spill() {
+        if (file == null) {
+            try {
+                file = File.createTempFile("karate-log", ".txt");
+                file.deleteOnExit();
+            } catch (Exception e) {
+                LOGGER.warn("unable to create log spill file, will keep log in memory: {}", e.getMessage());
+                return;
+            }
+        }
+        if (append(file, sb.toString())) {
+            sb.setLength(0);
+        }
+    }
+
+    @Override
+    public synchronized String getBuffer() {
+        if (file == null) {
+            return sb.toString();
+        }
+        return FileUtils.toString(file) + sb;
+    }
+
+    @Override
+    public synchronized String collect() {
+        String temp = getBuffer();
+        reset();
+        return temp;
+    }
+
+    /**
+     * @return null if nothing was spilled to disk, in which case call
+     * {@link #collect()} as usual, else a file holding the complete log since
+     * the last collect, which is now owned by the caller
+     */
+    public synchronized File collectFile() {
+        if (file == null || !append(file, sb.toString())) {
+            return null;
+        }
+        File temp = file;
+        file = null;
+        sb.setLength(0);
+        return temp;
+    }
+
+    private void reset() {
+        sb.setLength(0);
+        if (file != null) {
+            file.delete();
+            file = null;
+        }
+    }
+
+    @Override
+    public synchronized void append(String text) {
+        sb.append(text);
+        if (sb.length() > maxChars) {
+            spill();
+        }
+    }
+
+    @Override
+    public void close() {
+        // don't dispose of buffer it can be collected later
+    }
+
+    public static boolean append(File file, String text) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buf = ByteBuffer.wrap(FileUtils.toBytes(text));
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+            return true;
+        } catch (Exception e) {
+            LOGGER.warn("log spill failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+}
@@ -76,7 +76,11 @@ public class KarateEngineContext implements IEngineContext {
     }
 
     public static void set(KarateEngineContext kec) {
-        THREAD_LOCAL.set(kec);
+        if (kec == null) { // nothing held on to once a render is done
+            THREAD_LOCAL.remove();
+        } else {
+            THREAD_LOCAL.set(kec);
+        }
     }
 
     public JsEngine getJsEngine() {
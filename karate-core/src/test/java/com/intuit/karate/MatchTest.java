@@ -744,4 +744,51 @@ class MatchTest {
 
         match("{ a: null}", matchType, " { a: '##notnull' }");
     }
+
+    @Test
+    void testMacroParsedOnce() {
+        assertSame(MatchMacro.of("#[_ > 0] #number? _ > 0"), MatchMacro.of("#[_ > 0] #number? _ > 0"));
+        MatchMacro macro = MatchMacro.of("##regex \\d+");
+        assertTrue(macro.optional);
+        assertEquals(MatchMacro.Kind.VALIDATOR, macro.kind);
+        macro = MatchMacro.of("#[3]? _.length == 3");
+        assertEquals(MatchMacro.Kind.ARRAY, macro.kind);
+        assertEquals("3 == _", macro.sizeExpr);
+        assertEquals("#? _.length == 3", macro.eachMacro);
+        JSONArray list = new JSONArray();
+        for (int i = 0; i < 5000; i++) {
+            list.add(i);
+        }
+        match(list, EACH_EQUALS, "#number? _ >= 0 && _ == $[_]");
+        match(list, EACH_EQUALS, "#? _ < 4999", FAILS);
+        assertTrue(message.contains("match each failed at index 4999"), message);
+    }
+
+    @Test
+    void testEachParallel() {
+        JSONArray list = new JSONArray();
+        for (int i = 0; i < 20000; i++) {
+            list.add(Json.of("{ id: " + i + ", name: 'foo' }").value());
+        }
+        Object expected = Json.of("{ id: '#number', name: '#string' }").value();
+        JsEngine js = JsEngine.global();
+        assertTrue(Match.execute(js, EACH_EQUALS, list, expected, false, 1, 1000).pass);
+        ((Map) list.get(15000)).put("name", 15000);
+        ((Map) list.get(17000)).put("name", 17000);
+        Match.Result sequential = Match.execute(js, EACH_EQUALS, list, expected, false, 1, 0);
+        Match.Result parallel = Match.execute(js, EACH_EQUALS, list, expected, false, 1, 1000);
+        assertFalse(parallel.pass);
+        assertEquals(sequential.message, parallel.message);
+        assertTrue(parallel.message.contains("$[15000].name | not a string"), parallel.message);
+        parallel = Match.execute(js, EACH_EQUALS, list, expected, false, 5, 1000);
+        assertTrue(parallel.message.contains("match each failed at indexes [15000, 17000]"), parallel.message);
+        assertTrue(parallel.message.contains("$[17000].name | not a string"), parallel.message);
+        // js predicates are never evaluated off the calling thread
+        expected = Json.of("{ id: '#? _ >= 0', name: '#string' }").value();
+        assertFalse(MatchOperator.EachOperator.isJsFree(expected));
+        sequential = Match.execute(js, EACH_EQUALS, list, expected, false, 1, 0);
+        parallel = Match.execute(js, EACH_EQUALS, list, expected, false, 1, 1000);
+        assertEquals(sequential.message, parallel.message);
+    }
+
 }
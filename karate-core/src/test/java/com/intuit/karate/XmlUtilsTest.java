@@ -1,8 +1,12 @@
 package com.intuit.karate;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
@@ -273,4 +277,39 @@ class XmlUtilsTest {
         assertEquals("/bar/baz/@ban", XmlUtils.stripNameSpacePrefixes("/foo:bar/foo:baz/@ban"));
     }
 
+    @Test
+    void testCompiledXpathIsCachedPerThread() throws Exception {
+        Document doc = XmlUtils.toXmlDoc("<root><foo>bar</foo></root>");
+        assertEquals("bar", XmlUtils.getTextValueByPath(doc, "/root/foo"));
+        int size = XmlUtils.getXpathCacheSize();
+        assertEquals("bar", XmlUtils.getTextValueByPath(doc, "/root/foo"));
+        assertEquals(size, XmlUtils.getXpathCacheSize());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<String>> futures = new ArrayList();
+        for (int i = 0; i < 20; i++) {
+            String value = "v" + i;
+            futures.add(executor.submit(() -> {
+                Document d = XmlUtils.toXmlDoc("<root><foo>" + value + "</foo></root>");
+                return XmlUtils.getTextValueByPath(d, "/root/foo");
+            }));
+        }
+        for (int i = 0; i < 20; i++) {
+            assertEquals("v" + i, futures.get(i).get());
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void testCacheReusedAfterRelease() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            Thread thread = new Thread(() -> {
+                XmlUtils.toXmlDoc("<root/>");
+                XmlUtils.release();
+            });
+            thread.start();
+            thread.join();
+        }
+        assertEquals(1, XmlUtils.getCachePoolSize());
+    }
+
 }
@@ -0,0 +1,93 @@
+package com.intuit.karate.core;
+
+import com.intuit.karate.Logger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class CallCacheTest {
+
+    final Logger logger = new Logger();
+
+    @Test
+    void testDifferentKeysDoNotBlockEachOther() throws Exception {
+        Map<String, Object> cache = new HashMap();
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> slow = CompletableFuture.supplyAsync(() -> CallCache.getOrCall(cache, "slow", true, () -> {
+            slowStarted.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return "slow";
+        }, logger, "test"));
+        assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+        // would dead-lock if the whole cache was locked
+        assertEquals("fast", CallCache.getOrCall(cache, "fast", true, () -> "fast", logger, "test"));
+        release.countDown();
+        assertEquals("slow", slow.get(5, TimeUnit.SECONDS));
+        assertEquals("slow", cache.get("slow"));
+    }
+
+    @Test
+    void testSameKeyComputedOnce() throws Exception {
+        Map<String, Object> cache = new HashMap();
+        AtomicInteger count = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> first = CompletableFuture.supplyAsync(() -> CallCache.getOrCall(cache, "key", true, () -> {
+            count.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return "value";
+        }, logger, "test"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Object> second = CompletableFuture.supplyAsync(() -> CallCache.getOrCall(cache, "key", true, () -> {
+            count.incrementAndGet();
+            return "other";
+        }, logger, "test"));
+        release.countDown();
+        assertEquals("value", first.get(5, TimeUnit.SECONDS));
+        assertEquals("value", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    void testNullResultIsCached() {
+        Map<String, Object> cache = new HashMap();
+        AtomicInteger count = new AtomicInteger();
+        assertNull(CallCache.getOrCall(cache, "key", true, () -> {
+            count.incrementAndGet();
+            return null;
+        }, logger, "test"));
+        assertNull(CallCache.getOrCall(cache, "key", true, () -> {
+            count.incrementAndGet();
+            return "other";
+        }, logger, "test"));
+        assertEquals(1, count.get());
+        assertTrue(cache.containsKey("key"));
+    }
+
+    @Test
+    void testFailureIsNotCached() {
+        Map<String, Object> cache = new HashMap();
+        RuntimeException e = assertThrows(RuntimeException.class, () -> CallCache.getOrCall(cache, "key", true, () -> {
+            throw new RuntimeException("failed");
+        }, logger, "test"));
+        assertEquals("failed", e.getMessage());
+        assertTrue(cache.isEmpty());
+        assertEquals("value", CallCache.getOrCall(cache, "key", true, () -> "value", logger, "test"));
+    }
+
+}
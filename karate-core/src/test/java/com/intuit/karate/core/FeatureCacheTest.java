@@ -0,0 +1,70 @@
+package com.intuit.karate.core;
+
+import com.intuit.karate.FileUtils;
+import com.intuit.karate.resource.FileResource;
+import com.intuit.karate.resource.MemoryResource;
+import java.io.File;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class FeatureCacheTest {
+
+    static final String PATH = "classpath:com/intuit/karate/core/single-scenario.feature";
+
+    @Test
+    void testHitReturnsFreshFeature() {
+        FeatureCache cache = FeatureCache.INSTANCE;
+        Feature first = Feature.read(PATH);
+        long hits = cache.getHitCount();
+        Feature second = Feature.read(PATH);
+        assertEquals(hits + 1, cache.getHitCount());
+        assertNotSame(first, second);
+        Step step1 = first.getStep(0, -1, 0);
+        Step step2 = second.getStep(0, -1, 0);
+        assertNotSame(step1, step2);
+        assertEquals(step1.getText(), step2.getText());
+        step1.setText("def changed = true");
+        assertEquals("def result1 = 'One'", Feature.read(PATH).getStep(0, -1, 0).getText());
+    }
+
+    @Test
+    void testFileChangeIsReparsed() {
+        File file = new File("target/feature-cache-test.feature");
+        FileUtils.writeToFile(file, "Feature:\nScenario:\n* def a = 1\n");
+        FeatureCache cache = new FeatureCache(10);
+        FeatureParser.ParseResult first = cache.get(new FileResource(file));
+        assertSame(first, cache.get(new FileResource(file)));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        FileUtils.writeToFile(file, "Feature:\nScenario:\n* def a = 1\n* def b = 2\n");
+        file.setLastModified(file.lastModified() + 1000);
+        FeatureParser.ParseResult second = cache.get(new FileResource(file));
+        assertNotSame(first, second);
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testMemoryResourceNotCached() {
+        FeatureCache cache = new FeatureCache(10);
+        MemoryResource resource = new MemoryResource(new File("target/foo.feature"), "Feature:\nScenario:\n* def a = 1\n");
+        assertNotSame(cache.get(resource), cache.get(resource));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    void testCacheIsBounded() {
+        FeatureCache cache = new FeatureCache(1);
+        File file1 = new File("target/feature-cache-test-1.feature");
+        File file2 = new File("target/feature-cache-test-2.feature");
+        FileUtils.writeToFile(file1, "Feature:\nScenario:\n* def a = 1\n");
+        FileUtils.writeToFile(file2, "Feature:\nScenario:\n* def b = 2\n");
+        cache.get(new FileResource(file1));
+        cache.get(new FileResource(file2));
+        assertEquals(1, cache.size());
+        cache.get(new FileResource(file1));
+        assertEquals(3, cache.getMissCount());
+    }
+
+}
@@ -317,6 +317,36 @@ class MockHandlerTest {
                 .contentType("application/xml");
         handle();
         match(response.getBodyAsString(), "NULL");        
-    }    
+    }
+
+    @Test
+    void testRoutesMatchInFeatureOrder() {
+        background()
+                .scenario("pathMatches('/hello/{name}') && methodIs('post')", "def response = 'compiled post'")
+                .scenario("requestPath.startsWith('/hello')", "def response = 'js'")
+                .scenario("pathMatches('/hello/{name}')", "def response = 'compiled'")
+                .scenario("", "def response = 'default'");
+        request.path("/hello/john").method("POST");
+        handle();
+        match(response.getBodyAsString(), "compiled post");
+        request.url("/").path("/hello/john");
+        handle();
+        match(response.getBodyAsString(), "js");
+        request.url("/").path("/other");
+        handle();
+        match(response.getBodyAsString(), "default");
+    }
+
+    @Test
+    void testRouteStats() {
+        background()
+                .scenario("pathMatches('/hello') && typeContains('json')", "def response = 'compiled'")
+                .scenario("pathMatches('/hello') && paramValue('foo') == 'bar'", "def response = 'js'");
+        request.path("/hello").param("foo", "bar");
+        handle();
+        match(response.getBodyAsString(), "js");
+        match(handler.getRouteStats(), "[{ compiled: true, matchCount: 0, feature: '#string', line: '#number', expression: '#string', matchNanosAverage: 0 },"
+                + " { compiled: false, matchCount: 1, feature: '#string', line: '#number', expression: '#string', matchNanosAverage: '#number' }]");
+    }
 
 }
@@ -0,0 +1,58 @@
+package com.intuit.karate.core;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class ParallelProcessorTest {
+
+    @Test
+    void testSerialItemDoesNotBlockPoolThread() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        ExecutorService monitor = Executors.newSingleThreadExecutor();
+        CountDownLatch parallelDone = new CountDownLatch(1);
+        CountDownLatch complete = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList();
+        // "serial" waits for "parallel", and "after-serial" has to wait for "serial"
+        // if "after-serial" held on to the second pool thread, "parallel" would never run
+        List<String> items = Arrays.asList("serial", "after-serial", "parallel");
+        ParallelProcessor<String> processor = new ParallelProcessor<String>(executor, items.iterator(), monitor) {
+            @Override
+            public void process(String in) {
+                if (in.equals("serial")) {
+                    try {
+                        assertTrue(parallelDone.await(5, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+                order.add(in);
+                if (in.equals("parallel")) {
+                    parallelDone.countDown();
+                }
+            }
+
+            @Override
+            public void onComplete() {
+                complete.countDown();
+            }
+
+            @Override
+            public boolean shouldRunSynchronously(String in) {
+                return in.equals("serial");
+            }
+        };
+        processor.execute();
+        assertTrue(complete.await(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("parallel", "serial", "after-serial"), order);
+        executor.shutdownNow();
+        monitor.shutdownNow();
+    }
+
+}
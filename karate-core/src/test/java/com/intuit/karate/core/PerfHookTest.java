@@ -1,7 +1,9 @@
 package com.intuit.karate.core;
 
+import com.intuit.karate.FileUtils;
 import com.intuit.karate.PerfHook;
 import com.intuit.karate.Runner;
+import com.intuit.karate.Suite;
 import static com.intuit.karate.TestUtils.*;
 import com.intuit.karate.http.HttpRequest;
 import java.util.Collections;
@@ -134,6 +136,21 @@ class PerfHookTest {
         assertNull(featureResult);
     }
 
+    @Test
+    void testPerfHookSuiteReuse() {
+        // build once and run many times, like karate-gatling does
+        Suite suite = Runner.asyncSuite(Runner.builder().tags("@name=pass"));
+        FeatureCall feature = FileUtils.parseFeatureAndCallTag("classpath:com/intuit/karate/core/perf.feature");
+        for (int i = 0; i < 3; i++) {
+            String bar = "bar" + i;
+            Runner.callAsync(suite, feature, Collections.singletonMap("bar", bar), perfHook);
+            assertEquals(eventName, "http://localhost:" + server.getPort() + "/hello?foo=" + bar);
+            assertFalse(featureResult.isFailed());
+            assertEquals(featureResult.getScenarioCount(), 1);
+            matchContains(featureResult.getVariables(), "{ configSource: 'normal', response: { foo: ['" + bar + "'] } }");
+        }
+    }
+
     String eventName;
     FeatureResult featureResult;
     PerfHook perfHook = new PerfHook() {
@@ -236,6 +236,17 @@ class ScenarioRuntimeTest {
         matchVar("res", "{ varA: '2', varB: '3' }");
     }
 
+    @Test
+    void testKarateLock() {
+        run(
+                "def count = 0",
+                "def result = karate.lock('foo', function(){ karate.set('count', count + 1); return 'done' })"
+        );
+        matchVar("count", 1);
+        matchVar("result", "done");
+        assertEquals(0, ScenarioBridge.getLockCount());
+    }
+
     @Test
     void testKarateCallThatReturnsJson() {
         run(
@@ -779,6 +790,24 @@ class ScenarioRuntimeTest {
         );
     }
 
+    @Test
+    void testMatchEachParallel() {
+        run(
+                "configure matchEachParallelThreshold = 100",
+                "def list = karate.repeat(1000, function(i){ return { id: i, name: 'foo' + i } })",
+                "match each list == { id: '#number', name: '#regex foo[0-9]+' }",
+                "match each list == { id: '#? _ >= 0', name: '#string' }"
+        );
+        fail = true;
+        run(
+                "configure matchEachParallelThreshold = 100",
+                "configure matchEachMaxFailures = 3",
+                "def list = karate.repeat(1000, function(i){ return { id: i, name: i % 300 == 299 ? i : 'foo' } })",
+                "match each list == { id: '#number', name: '#string' }"
+        );
+        assertTrue(sr.result.getErrorMessage().contains("match each failed at indexes [299, 599, 899]"), sr.result.getErrorMessage());
+    }
+
     @Test
     void testMatchSchemaMagicVariables() {
         run(
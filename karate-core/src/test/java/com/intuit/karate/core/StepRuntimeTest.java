@@ -1,5 +1,6 @@
 package com.intuit.karate.core;
 
+import com.intuit.karate.TestUtils;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -52,6 +53,39 @@ public class StepRuntimeTest {
         Assertions.assertEquals(new ArrayList<>(), methodMatch.args);
         Assertions.assertEquals("com.intuit.karate.ScenarioActions.getFailedReason() null", methodMatch.toString());
     }
+    @Test
+    public void testStepBindingIsCachedAndResetOnTextChange() {
+        ScenarioRuntime sr = TestUtils.runScenario(null, "def a = 1");
+        Assertions.assertFalse(sr.isFailed());
+        Step step = sr.scenario.getSteps().get(0);
+        StepRuntime.MethodMatch binding = step.getBinding();
+        Assertions.assertNotNull(binding);
+        Assertions.assertNotNull(binding.invoker);
+        Result result = StepRuntime.execute(step, sr.actions);
+        Assertions.assertFalse(result.isFailed());
+        Assertions.assertSame(binding, step.getBinding());
+        step.setText("def b = 2");
+        Assertions.assertNull(step.getBinding());
+    }
+
+    @Test
+    public void testStepBindingsKeptForRecentTextOnceFull() {
+        ScenarioRuntime sr = TestUtils.runScenario(null, "def a = 1");
+        for (int i = 0; i < 10100; i++) {
+            Step step = new Step(sr.scenario, -1);
+            step.setText("def a" + i + " = " + i);
+            Assertions.assertFalse(StepRuntime.execute(step, sr.actions).isFailed());
+        }
+        Assertions.assertEquals(10000, StepRuntime.getBindingsSize());
+        Step first = new Step(sr.scenario, -1);
+        first.setText("def a10099 = 10099");
+        Step second = new Step(sr.scenario, -1);
+        second.setText("def a10099 = 10099");
+        StepRuntime.execute(first, sr.actions);
+        StepRuntime.execute(second, sr.actions);
+        Assertions.assertSame(first.getBinding(), second.getBinding());
+    }
+
     @Test
     public void testFindMethodsByKeywordNoResults() {
         Collection<Method> defMethod = StepRuntime.findMethodsByKeyword("def");
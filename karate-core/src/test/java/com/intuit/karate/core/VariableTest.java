@@ -1,5 +1,6 @@
 package com.intuit.karate.core;
 
+import com.intuit.karate.XmlUtils;
 import com.intuit.karate.graal.JsValue;
 import com.intuit.karate.graal.JsEngine;
 import java.util.function.BiFunction;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -71,5 +73,18 @@ public class VariableTest {
         // maybe we are ok with this, karate "call" can be used only with functions
         assertFalse(v.isJavaFunction());        
     }
-    
+
+    @Test
+    void testXmlCopyIsIndependent() {
+        Document doc = XmlUtils.toXmlDoc("<root><foo>bar</foo></root>");
+        Variable var = new Variable(doc);
+        Variable copy = var.copy(false);
+        assertNotSame(doc, copy.getValue());
+        XmlUtils.setByPath(copy.<Document>getValue(), "/root/foo", "baz");
+        assertEquals("<root><foo>bar</foo></root>", var.getAsString());
+        assertEquals("<root><foo>baz</foo></root>", copy.getAsString());
+        Variable element = new Variable(doc.getDocumentElement().getFirstChild());
+        assertEquals("<foo>bar</foo>", element.copy(true).getAsString());
+    }
+
 }
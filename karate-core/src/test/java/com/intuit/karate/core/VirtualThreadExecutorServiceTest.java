@@ -0,0 +1,78 @@
+package com.intuit.karate.core;
+
+import com.intuit.karate.graal.JsEngine;
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+class VirtualThreadExecutorServiceTest {
+
+    @Test
+    void testMaxConcurrency() throws Exception {
+        ExecutorService executor = VirtualThreadExecutorService.newExecutor(2);
+        if (!VirtualThreadExecutorService.isSupported()) {
+            assertNull(executor);
+            return;
+        }
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(20);
+        for (int i = 0; i < 20; i++) {
+            executor.submit(() -> {
+                int count = running.incrementAndGet();
+                maxRunning.accumulateAndGet(count, Math::max);
+                assertTrue(Thread.currentThread().getName().startsWith("virtual-"));
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(2, maxRunning.get());
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(2, ((VirtualThreadExecutorService) executor).getAvailableSlots());
+    }
+
+    @Test
+    void testTaskStateIsReused() throws Exception {
+        // one thread per task, like a virtual thread, which needs java 21
+        JsEngine[] engines = new JsEngine[2];
+        for (int i = 0; i < 2; i++) {
+            int index = i;
+            Thread thread = new Thread(() -> VirtualThreadExecutorService.run(() -> engines[index] = JsEngine.global()));
+            thread.start();
+            thread.join();
+        }
+        assertSame(engines[0], engines[1]);
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void testTasksRunOnVirtualThreads() throws Exception {
+        Method isVirtual = Thread.class.getMethod("isVirtual"); // compiled against java 17
+        for (int maxConcurrency : new int[]{0, 2}) {
+            ExecutorService executor = VirtualThreadExecutorService.newExecutor(maxConcurrency);
+            assertNotNull(executor);
+            Future<Object> future = executor.submit(() -> isVirtual.invoke(Thread.currentThread()));
+            assertEquals(true, future.get(5, TimeUnit.SECONDS));
+            // each task is a new thread, but the js engine of the previous one is re-used
+            JsEngine first = executor.submit(() -> JsEngine.global()).get(5, TimeUnit.SECONDS);
+            assertSame(first, executor.submit(() -> JsEngine.global()).get(5, TimeUnit.SECONDS));
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.intuit.karate.core.mock;
+
+import com.intuit.karate.FileUtils;
+import com.intuit.karate.Http;
+import com.intuit.karate.core.MockServer;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterAll;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentMockTest {
+
+    static MockServer server;
+
+    @BeforeAll
+    static void beforeAll() {
+        server = MockServer
+                .feature("classpath:com/intuit/karate/core/mock/_counter.feature")
+                .concurrent(true)
+                .http(0).build();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        server.stop();
+    }
+
+    @Test
+    void testLockedUpdatesAreNotLost() throws Exception {
+        String url = "http://localhost:" + server.getPort();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future> futures = new ArrayList();
+        for (int i = 0; i < 40; i++) {
+            futures.add(executor.submit(() -> Http.to(url + "/increment").post("")));
+        }
+        for (Future future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertEquals(40, Http.to(url + "/count").get().json().<Integer>get("count"));
+    }
+
+    @Test
+    void testConfigureIsPerRequest() {
+        String url = "http://localhost:" + server.getPort();
+        assertEquals("configure", Http.to(url + "/configure").get().getHeader("X-Request"));
+        assertNull(Http.to(url + "/count").get().getHeader("X-Request"));
+    }
+
+    static String watchFeature(String message) {
+        return "Feature:\n\nScenario: pathMatches('/hello')\n* def response = { message: '" + message + "' }\n";
+    }
+
+    @Test
+    void testWatchReloadIsSeenByAllThreads() throws Exception {
+        File file = new File("target/concurrent-watch.feature");
+        FileUtils.writeToFile(file, watchFeature("before"));
+        MockServer watching = MockServer.feature(file).watch(true).concurrent(true).http(0).build();
+        String url = "http://localhost:" + watching.getPort() + "/hello";
+        assertEquals("before", Http.to(url).get().json().get("message"));
+        FileUtils.writeToFile(file, watchFeature("after"));
+        file.setLastModified(System.currentTimeMillis() + 2000); // in case the file-system time is coarse
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> futures = new ArrayList();
+        for (int i = 0; i < 16; i++) {
+            futures.add(executor.submit(() -> Http.to(url).get().json().<String>get("message")));
+        }
+        for (Future<String> future : futures) {
+            assertEquals("after", future.get());
+        }
+        executor.shutdown();
+        assertEquals("after", Http.to(url).get().json().get("message"));
+        watching.stop();
+    }
+
+}
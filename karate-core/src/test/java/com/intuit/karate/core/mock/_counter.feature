@@ -0,0 +1,15 @@
+Feature: stateful mock that can handle requests concurrently
+
+Background:
+* def count = 0
+
+Scenario: pathMatches('/increment')
+* karate.lock('count', function(){ karate.set('count', count + 1) })
+* def response = { count: '#(count)' }
+
+Scenario: pathMatches('/count')
+* def response = { count: '#(count)' }
+
+Scenario: pathMatches('/configure')
+* configure responseHeaders = { 'X-Request': 'configure' }
+* def response = { count: '#(count)' }
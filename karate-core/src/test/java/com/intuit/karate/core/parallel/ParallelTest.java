@@ -1,10 +1,18 @@
 package com.intuit.karate.core.parallel;
 
+import com.intuit.karate.Constants;
 import com.intuit.karate.Results;
 import com.intuit.karate.Runner;
+import com.intuit.karate.Suite;
 import com.intuit.karate.core.Feature;
+import com.intuit.karate.core.FeatureCall;
+import com.intuit.karate.core.FeatureRuntime;
 import com.intuit.karate.core.MockHandler;
+import com.intuit.karate.core.VirtualThreadExecutorService;
 import com.intuit.karate.http.HttpServer;
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -36,4 +44,71 @@ class ParallelTest {
         assertEquals(0, results.getFailCount(), results.getErrorMessages());
     }
 
+    @Test
+    void testParallelKarateConfigOnce() {
+        Results results = Runner.path("classpath:com/intuit/karate/core/parallel/parallel.feature")
+                .configDir("classpath:com/intuit/karate/core/parallel")
+                .systemProperty("server.port", server.getPort() + "")
+                .karateConfigOnce(true)
+                .parallel(3);
+        assertEquals(0, results.getFailCount(), results.getErrorMessages());
+    }
+
+    @Test
+    void testKarateConfigOnceKeepsCallArgs() {
+        Suite suite = new Suite(Runner.builder()
+                .configDir("classpath:com/intuit/karate/core/parallel")
+                .systemProperty("server.port", server.getPort() + "")
+                .karateConfigOnce(true));
+        Feature feature = Feature.read("classpath:com/intuit/karate/core/parallel/config-once-arg.feature");
+        Map<String, Object> arg = new HashMap();
+        arg.put("userArg", "a");
+        arg.put("expected", "a");
+        arg.put("firstOnly", "yes");
+        arg.put("expectedFirstOnly", "yes");
+        arg.put("serverUrl", "mine");
+        FeatureRuntime fr = FeatureRuntime.of(suite, new FeatureCall(feature), arg);
+        fr.run();
+        assertFalse(fr.result.isFailed(), fr.result.getErrorMessages());
+        assertEquals("mine", fr.result.getVariables().get("serverUrl"));
+        arg = new HashMap();
+        arg.put("userArg", "b");
+        arg.put("expected", "b");
+        arg.put("expectedFirstOnly", "none");
+        fr = FeatureRuntime.of(suite, new FeatureCall(feature), arg);
+        fr.run();
+        assertFalse(fr.result.isFailed(), fr.result.getErrorMessages());
+        assertEquals("http://localhost:" + server.getPort(), fr.result.getVariables().get("serverUrl"));
+    }
+
+    @Test
+    void testParallelVirtualThreads() {
+        // falls back to platform threads below java 21
+        Results results = Runner.path("classpath:com/intuit/karate/core/parallel/parallel.feature")
+                .configDir("classpath:com/intuit/karate/core/parallel")
+                .systemProperty("server.port", server.getPort() + "")
+                .virtualThreads(true)
+                .parallel(3);
+        assertEquals(0, results.getFailCount(), results.getErrorMessages());
+        if (VirtualThreadExecutorService.isSupported()) { // named after the slot, see VirtualThreadExecutorService
+            assertTrue(results.getScenarioResults().allMatch(sr -> sr.getExecutorName().startsWith("virtual-")));
+        }
+    }
+
+    @Test
+    void testParallelReportsWrittenBeforeReturn() {
+        Results results = Runner.path("classpath:com/intuit/karate/core/parallel/parallel.feature")
+                .configDir("classpath:com/intuit/karate/core/parallel")
+                .systemProperty("server.port", server.getPort() + "")
+                .reportDir("target/parallel-reports")
+                .outputCucumberJson(true)
+                .parallel(3);
+        assertEquals(0, results.getFailCount(), results.getErrorMessages());
+        String prefix = "target/parallel-reports/com.intuit.karate.core.parallel.parallel";
+        assertTrue(new File(prefix + ".html").exists());
+        assertTrue(new File(prefix + ".json").exists());
+        assertTrue(new File(prefix + Constants.KARATE_JSON_SUFFIX).exists());
+        assertEquals(1, results.getFeatureResults().count());
+    }
+
 }
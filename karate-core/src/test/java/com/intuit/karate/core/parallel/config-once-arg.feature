@@ -0,0 +1,6 @@
+Feature: call arg with config evaluated once per suite
+
+Scenario:
+* match userArg == expected
+* match serverUrl == '#string'
+* match karate.get('firstOnly', 'none') == expectedFirstOnly
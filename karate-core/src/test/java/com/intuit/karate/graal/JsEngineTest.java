@@ -1,13 +1,16 @@
 package com.intuit.karate.graal;
 
 import com.intuit.karate.Match;
+import com.intuit.karate.core.Variable;
 import com.intuit.karate.core.MockUtils;
 import com.intuit.karate.http.Request;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -45,6 +48,40 @@ class JsEngineTest {
         assertEquals("function(){ return ['a', 'b', 'c'] }", v.toString());
     }
 
+    @Test
+    void testEvalWith() {
+        assertTrue(je.evalWith("_ > 1 && $.length == 2", 2, Arrays.asList(1, 2)).isTrue());
+        assertFalse(je.evalWith("_ > 1 && $.length == 2", 1, Arrays.asList(1, 2)).isTrue());
+        // not a single expression, falls back to binding globals
+        assertEquals(3, je.evalWith("var a = _ + 1; a + $", 1, 1).<Object>getValue());
+        assertFalse(je.bindings.hasMember("_"));
+    }
+
+    @Test
+    void testToJavaLazy() {
+        Value v = je.evalForValue("var rows = []; for (var i = 0; i < 3; i++) rows.push({ id: i, tags: ['a'] }); rows");
+        List list = (List) JsValue.toJavaLazy(v);
+        assertTrue(JsValue.isView(list));
+        assertEquals(3, list.size());
+        Map row = (Map) list.get(1);
+        assertTrue(JsValue.isView(row));
+        assertEquals(1, row.get("id"));
+        assertSame(row, list.get(1));
+        assertEquals(JsValue.toJava(v), list);
+        row.put("id", 5); // copy on write, js untouched
+        assertFalse(JsValue.isView(row));
+        assertEquals(5, ((Map) list.get(1)).get("id"));
+        assertEquals(1, je.eval("rows[1].id").<Object>getValue());
+        list.add("x");
+        assertFalse(JsValue.isView(list));
+        assertEquals(4, list.size());
+        assertFalse(JsValue.isView(list.get(0))); // materialized deep
+        // a variable never holds a view
+        Variable var = new Variable(JsValue.toJavaLazy(v));
+        assertFalse(JsValue.isView(var.getValue()));
+        assertEquals(JsValue.toJava(v), var.getValue());
+    }
+
     @Test
     void testArrowFunctionZeroArg() {
         JsValue v = je.eval("() => ['a', 'b', 'c']");
@@ -291,4 +328,36 @@ class JsEngineTest {
         assertTrue(jv.isTrue());
     }
 
+    @Test
+    void testEngineAndSourcesSharedAcrossThreads() throws Exception {
+        JsValue jv = je.eval("1 + 2");
+        assertEquals(3, jv.getOriginal().asInt());
+        assertSame(JsEngine.toSource("1 + 2"), JsEngine.toSource("1 + 2"));
+        JsEngine[] other = new JsEngine[1];
+        Thread thread = new Thread(() -> {
+            other[0] = JsEngine.global();
+            assertEquals(3, other[0].eval("1 + 2").getOriginal().asInt());
+        });
+        thread.start();
+        thread.join();
+        assertNotSame(je.context, other[0].context);
+        assertSame(je.context.getEngine(), other[0].context.getEngine());
+        assertSame(je.context.getEngine(), JsEngine.local().context.getEngine());
+    }
+
+    @Test
+    void testSourceCacheEvictsUnusedFirst() {
+        Source hot = JsEngine.toSource("'hot'");
+        for (int i = 0; i < 12000; i++) {
+            JsEngine.toSource("'cold' + " + i);
+            if (i % 100 == 0) {
+                assertSame(hot, JsEngine.toSource("'hot'"));
+            }
+        }
+        assertTrue(JsEngine.getSourceCacheSize() <= 5000);
+        assertSame(hot, JsEngine.toSource("'hot'"));
+        assertSame(JsEngine.toSource("'cold' + 5999"), JsEngine.toSource("'cold' + 5999"));
+        assertEquals("hot", je.eval("'hot'").getValue());
+    }
+
 }
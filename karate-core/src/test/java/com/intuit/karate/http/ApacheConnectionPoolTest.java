@@ -0,0 +1,72 @@
+package com.intuit.karate.http;
+
+import com.intuit.karate.Http;
+import com.intuit.karate.core.Config;
+import com.intuit.karate.core.MockServer;
+import com.intuit.karate.core.Variable;
+import java.util.Map;
+import org.junit.jupiter.api.AfterAll;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ApacheConnectionPoolTest {
+
+    static MockServer server;
+
+    @BeforeAll
+    static void beforeAll() {
+        server = MockServer
+                .feature("classpath:com/intuit/karate/http/mock.feature")
+                .http(0).build();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        server.stop();
+    }
+
+    @Test
+    void testConnectionIsReturnedToPool() {
+        for (int i = 0; i < 3; i++) {
+            Response response = Http.to("http://localhost:" + server.getPort() + "/hello").get();
+            assertEquals(200, response.getStatus());
+        }
+        Map<String, Object> stats = ApacheConnectionPool.getStats();
+        assertTrue((Integer) stats.get("pools") >= 1);
+        assertTrue((Integer) stats.get("available") >= 1);
+        assertEquals(0, stats.get("leased"));
+    }
+
+    @Test
+    void testConnectionIsReturnedWhenReadFails() {
+        for (int i = 0; i < 3; i++) {
+            try {
+                Http.to("http://localhost:" + server.getPort() + "/broken").get();
+                fail("expected brotli decoding to fail");
+            } catch (Exception e) {
+                // expected
+            }
+        }
+        assertEquals(0, ApacheConnectionPool.getStats().get("leased"));
+    }
+
+    @Test
+    void testSameConfigSharesPool() {
+        Config config = new Config();
+        assertSame(ApacheConnectionPool.get(config, null), ApacheConnectionPool.get(new Config(config), null));
+        Config other = new Config(config);
+        other.configure("readTimeout", new Variable(1234));
+        assertNotSame(ApacheConnectionPool.get(config, null), ApacheConnectionPool.get(other, null));
+    }
+
+    @Test
+    void testPoolingCanBeDisabled() {
+        Config config = new Config();
+        config.configure("connectionPool", new Variable(false));
+        assertNull(ApacheConnectionPool.get(config, null));
+        config.configure("connectionPool", new Variable(Map.of("maxPerRoute", 5)));
+        assertEquals(5, ApacheConnectionPool.get(config, null).getDefaultMaxPerRoute());
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.intuit.karate.http;
+
+import com.intuit.karate.Logger;
+import com.intuit.karate.core.Config;
+import com.intuit.karate.core.MockServer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ArmeriaHttpClientTest {
+
+    static MockServer server;
+
+    @BeforeAll
+    static void beforeAll() {
+        server = MockServer
+                .feature("classpath:com/intuit/karate/http/mock.feature")
+                .http(0).build();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        server.stop();
+    }
+
+    static HttpRequest request(String path) {
+        HttpRequest request = new HttpRequest();
+        request.setMethod("GET");
+        request.setUrl("http://localhost:" + server.getPort() + path);
+        return request;
+    }
+
+    @Test
+    void testInvoke() {
+        ArmeriaHttpClient client = new ArmeriaHttpClient(new Config(), new Logger());
+        HttpRequest request = request("/hello");
+        Response response = client.invoke(request);
+        assertEquals(200, response.getStatus());
+        assertEquals("/hello", response.json().get("path").toString());
+    }
+
+    @Test
+    void testInvokeAsyncConcurrently() throws Exception {
+        ArmeriaHttpClient client = new ArmeriaHttpClient(new Config(), new Logger());
+        List<CompletableFuture<Response>> futures = new ArrayList();
+        for (int i = 0; i < 10; i++) {
+            futures.add(client.invokeAsync(request("/async/" + i)));
+        }
+        for (int i = 0; i < 10; i++) {
+            Response response = futures.get(i).get(10, TimeUnit.SECONDS);
+            assertEquals("/async/" + i, response.json().get("path").toString());
+        }
+    }
+
+}
@@ -7,12 +7,14 @@ import com.intuit.karate.core.DummyClient;
 import com.intuit.karate.core.MockHandler;
 import com.intuit.karate.core.Variable;
 import com.intuit.karate.shell.StringLogAppender;
+import java.nio.charset.StandardCharsets;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static com.intuit.karate.TestUtils.FeatureBuilder;
 import static com.intuit.karate.TestUtils.match;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -246,4 +248,63 @@ class HttpLoggerTest {
         assertTrue(logs.contains(TURTLE_SAMPLE));
         assertTrue(logs.contains("Content-Type: text/turtle"));
     }
+
+    @Test
+    void testRequestLoggingTruncated() {
+        config.configure("logPrettyRequest", new Variable(true));
+        config.configure("logBodyMaxSize", new Variable(5));
+        HttpRequest httpRequest = httpRequestBuilder.body("{\"hello\":\"world\"}").contentType("application/json").path("/ttl").build();
+        httpLogger.logRequest(config, httpRequest);
+        String logs = logAppender.collect();
+        assertTrue(logs.contains("{\"hel\n... [truncated, 17 bytes]"));
+    }
+
+    @Test
+    void testRequestLoggingTruncatedMultiByte() {
+        config.configure("logBodyMaxSize", new Variable(4));
+        HttpRequest httpRequest = httpRequestBuilder.body("caf\u00e9 \u00e9t\u00e9").contentType("text/plain").path("/ttl").build();
+        httpLogger.logRequest(config, httpRequest);
+        String logs = logAppender.collect();
+        assertTrue(logs.contains("caf\n... [truncated, 11 bytes]"));
+        assertEquals(3, HttpLogger.utf8Boundary("caf\u00e9".getBytes(StandardCharsets.UTF_8), 4));
+        assertEquals(5, HttpLogger.utf8Boundary("caf\u00e9".getBytes(StandardCharsets.UTF_8), 5));
+        assertEquals(1, HttpLogger.charBoundary("a\ud83d\ude00", 2));
+    }
+
+    @Test
+    void testRequestLoggingTruncatedModifiedFirst() {
+        config.configure("logBodyMaxSize", new Variable(12));
+        config.configure("logModifier", new Variable(new HttpLogModifier() {
+            @Override
+            public boolean enableForUri(String uri) {
+                return true;
+            }
+
+            @Override
+            public String uri(String uri) {
+                return uri;
+            }
+
+            @Override
+            public String header(String header, String value) {
+                return value;
+            }
+
+            @Override
+            public String request(String uri, String request) {
+                return request.replace("secret", "******");
+            }
+
+            @Override
+            public String response(String uri, String response) {
+                return response;
+            }
+        }));
+        HttpRequest httpRequest = httpRequestBuilder.body("password=secret").contentType("text/plain").path("/ttl").build();
+        httpLogger.logRequest(config, httpRequest);
+        String logs = logAppender.collect();
+        assertTrue(logs.contains("password=***\n... [truncated, 15 bytes]"));
+        assertFalse(logs.contains("sec"));
+    }
+
 }
@@ -57,6 +57,14 @@ class HttpUtilsTest {
         match(map, "{ img: 'billie.jpg' }");
         map = HttpUtils.parseUriPattern("/hello/{raw}", "/hello/�Ill~Formed@RequiredString!");
         match(map, "{ raw: '�Ill~Formed@RequiredString!' }");
+        map = HttpUtils.parseUriPattern("/cats/{id}", "//cats//1?foo=bar");
+        match(map, "{ id: '1' }");
+        map = HttpUtils.parseUriPattern("/cats/{id}/foo", "/cats/1/bar");
+        match(map, null);
+        map = HttpUtils.parseUriPattern("/cats/{id}", "/cats/1/foo");
+        match(map, null);
+        map = HttpUtils.parseUriPattern("/cats", "/cats");
+        match(map, "{}");
     }
     
     static void splitUrl(String raw, String left, String right) {
@@ -0,0 +1,70 @@
+package com.intuit.karate.http;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class UriPatternTrieTest {
+
+    static final List<String> PATTERNS = Arrays.asList("/cats", "/cats/{id}", "/cats/{id}/kittens", "/cats/new", "/dogs/{id}", "/");
+
+    static List<String> find(UriPatternTrie<String> trie, String path) {
+        List<String> list = trie.find(path);
+        Collections.sort(list);
+        return list;
+    }
+
+    @Test
+    void testSameAsParseUriPattern() {
+        UriPatternTrie<String> trie = new UriPatternTrie();
+        PATTERNS.forEach(p -> trie.add(p, p));
+        assertEquals(PATTERNS.size(), trie.size());
+        for (String path : Arrays.asList("/cats", "/cats/", "/cats/1", "/cats/new", "/cats/1/kittens?foo=bar", "//cats//1", "/dogs", "/", "/birds/1")) {
+            List<String> expected = PATTERNS.stream().filter(p -> HttpUtils.parseUriPattern(p, path) != null).sorted().toList();
+            assertEquals(expected, find(trie, path), path);
+        }
+        assertEquals(Arrays.asList("/cats/new", "/cats/{id}"), find(trie, "/cats/new"));
+    }
+
+    @Test
+    void testLookup() {
+        UriPatternTrie<String> trie = new UriPatternTrie();
+        PATTERNS.forEach(p -> trie.add(p, p.toUpperCase()));
+        trie.add("/cats/{catId}/kittens/{id}", "kitten");
+        assertEquals("/CATS/NEW", trie.lookup("/cats/new")); // literal wins
+        assertEquals("/CATS/{ID}", trie.lookup("/cats/1?foo=bar"));
+        assertEquals("/", trie.lookup("//"));
+        assertNull(trie.lookup("/birds/1"));
+        UriPatternTrie.Result<String> result = new UriPatternTrie.Result();
+        assertTrue(trie.lookup("/cats//2/kittens/3/", result));
+        assertEquals("kitten", result.getValue());
+        assertEquals("/cats/{catId}/kittens/{id}", result.getPattern());
+        assertEquals("2", result.getParam("catId"));
+        assertEquals("3", result.getParam("id"));
+        assertNull(result.getParam("foo"));
+        assertEquals("{catId=2, id=3}", result.getParams().toString());
+        assertTrue(trie.lookup("/cats", result));
+        assertEquals(Collections.emptyMap(), result.getParams());
+        assertFalse(trie.lookup("/cats/1/2/3/4/5/6/7/8/9/10", result));
+        assertNull(result.getPattern());
+        // deeper than the initial capacity of the result
+        trie.add("/a/b/c/d/e/f/g/h/i/{j}", "deep");
+        assertTrue(trie.lookup("/a/b/c/d/e/f/g/h/i/j", result));
+        assertEquals("j", result.getParam("j"));
+    }
+
+    @Test
+    void testManyLiterals() {
+        UriPatternTrie<Integer> trie = new UriPatternTrie();
+        for (int i = 0; i < 200; i++) {
+            trie.add("/api/resource" + i + "/{id}", i);
+        }
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, trie.lookup("/api/resource" + i + "/" + i));
+        }
+        assertNull(trie.lookup("/api/resource200/1"));
+    }
+
+}
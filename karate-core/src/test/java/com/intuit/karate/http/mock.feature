@@ -1,5 +1,9 @@
 @ignore
 Feature:
 
+Scenario: pathMatches('/broken')
+* def responseHeaders = { 'Content-Encoding': 'br' }
+* def response = 'not brotli'
+
 Scenario:
 * def response = ({ body: null, path: requestPath })
@@ -6,12 +6,20 @@ import com.intuit.karate.core.FeatureRuntime;
 import com.intuit.karate.Suite;
 import com.intuit.karate.FileUtils;
 import com.intuit.karate.Results;
+import com.intuit.karate.Json;
+import com.intuit.karate.JsonUtils;
 import com.intuit.karate.core.FeatureCall;
+import com.intuit.karate.core.FeatureResult;
+import com.intuit.karate.core.FeatureSummary;
+import com.intuit.karate.core.StepResult;
+import com.intuit.karate.shell.SpillingLogAppender;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import org.slf4j.Logger;
@@ -102,4 +110,79 @@ class ReportUtilsTest {
         assertTrue(FileUtils.toString(file).contains(expectedSystemout));
     }
 
+    @Test
+    void testStreamedJsonSameAsInMemory() {
+        Feature feature = Feature.read("classpath:com/intuit/karate/report/test.feature");
+        FeatureRuntime fr = FeatureRuntime.of(new Suite(), new FeatureCall(feature));
+        fr.run();
+        File file = ReportUtils.saveKarateJson("target/report-stream", fr.result, null);
+        String expected = JsonUtils.toJson(fr.result.toKarateJson());
+        assertEquals(Json.of(expected).asMap(), Json.of(FileUtils.toString(file)).asMap());
+        file = ReportUtils.saveCucumberJson("target/report-stream", fr.result, null);
+        List<Object> list = Json.of(FileUtils.toString(file)).asList();
+        assertEquals(1, list.size());
+        assertEquals(Json.of(JsonUtils.toJson(fr.result.toCucumberJson())).asMap(), list.get(0));
+    }
+
+    @Test
+    void testSpilledStepLogStreamedIntoReports() {
+        Feature feature = Feature.read("classpath:com/intuit/karate/report/spill.feature");
+        FeatureRuntime fr = FeatureRuntime.of(new Suite(), new FeatureCall(feature));
+        fr.run();
+        StepResult step = fr.result.getScenarioResults().get(0).getStepResults().get(1);
+        String stepLog = step.getStepLog();
+        assertTrue(stepLog.length() > SpillingLogAppender.DEFAULT_MAX_CHARS);
+        assertTrue(stepLog.contains("line 4999 with \"quotes\" and caf\u00e9"));
+        File file = ReportUtils.saveKarateJson("target/report-spill", fr.result, null);
+        Map<String, Object> map = Json.of(FileUtils.toString(file)).get("scenarioResults[0].stepResults[1]");
+        assertEquals(stepLog, map.get("stepLog"));
+        file = ReportUtils.saveCucumberJson("target/report-spill", fr.result, null);
+        assertEquals(stepLog, Json.of(FileUtils.toString(file)).get("[0].elements[0].steps[1].doc_string.value"));
+        file = SuiteReports.DEFAULT.featureReport(fr.suite, fr.result).render("target/report-spill");
+        assertTrue(FileUtils.toString(file).contains("line 4999 with &quot;quotes&quot;"));
+        fr.result.deleteStepLogFiles();
+        assertNull(step.getStepLog());
+    }
+
+    @Test
+    void testSpilledStepLogKeptWhenReportsFail() {
+        Feature feature = Feature.read("classpath:com/intuit/karate/report/spill.feature");
+        FeatureRuntime fr = FeatureRuntime.of(new Suite(), new FeatureCall(feature));
+        fr.run();
+        StepResult step = fr.result.getScenarioResults().get(0).getStepResults().get(1);
+        File notDir = new File("target/report-spill-fail");
+        FileUtils.writeToFile(notDir, "not a directory");
+        Suite suite = new Suite(new Runner.Builder().reportDir("target/report-spill-fail/reports"));
+        suite.saveFeatureResults(fr.result); // single thread, so written right away
+        assertTrue(suite.featureResultFiles.isEmpty());
+        assertTrue(step.getStepLog().contains("line 4999"));
+        fr.result.deleteStepLogFiles();
+    }
+
+    @Test
+    void testSummaryWithoutReRead() {
+        Feature feature = Feature.read("classpath:com/intuit/karate/report/test.feature");
+        FeatureRuntime fr = FeatureRuntime.of(new Suite(), new FeatureCall(feature));
+        fr.run();
+        FeatureSummary fs = FeatureSummary.of(fr.result);
+        File file = ReportUtils.saveKarateJson("target/report-summary", fr.result, null);
+        FeatureResult reRead = FeatureResult.fromKarateJson(fr.suite.workingDir, Json.of(FileUtils.toString(file)).asMap());
+        assertEquals(reRead.toSummaryJson(), fs.toSummaryJson());
+        assertEquals(reRead.getErrors(), fs.getErrors());
+        assertEquals(reRead.getScenarioCount(), fs.getScenarios().size());
+    }
+
+    @Test
+    void testFeatureResultsSavedAfterShutdown() {
+        Feature feature = Feature.read("classpath:com/intuit/karate/report/test.feature");
+        FeatureRuntime fr = FeatureRuntime.of(new Suite(), new FeatureCall(feature));
+        fr.run();
+        Suite suite = new Suite(new Runner.Builder().reportDir("target/report-shutdown").threads(2));
+        suite.reportExecutor.shutdown(); // as after the run, e.g. for retryScenario()
+        suite.saveFeatureResults(fr.result);
+        assertEquals(1, suite.featureResultFiles.size());
+        assertTrue(suite.featureResultFiles.iterator().next().isFile());
+        assertEquals(1, suite.getFeatureSummaries().size());
+    }
+
 }
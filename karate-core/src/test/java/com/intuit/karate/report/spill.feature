@@ -0,0 +1,5 @@
+Feature: a step log big enough to be spilled to disk
+
+Scenario: chatty
+* def big = karate.repeat(5000, function(i){ return 'line ' + i + ' with "quotes" and café\n' }).join('')
+* print big
@@ -0,0 +1,45 @@
+package com.intuit.karate.shell;
+
+import com.intuit.karate.FileUtils;
+import java.io.File;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class SpillingLogAppenderTest {
+
+    @Test
+    void testInMemory() {
+        SpillingLogAppender appender = new SpillingLogAppender(10);
+        appender.append("hello");
+        assertFalse(appender.isSpilled());
+        assertNull(appender.collectFile());
+        assertEquals("hello", appender.collect());
+        assertEquals("", appender.collect());
+    }
+
+    @Test
+    void testSpill() {
+        SpillingLogAppender appender = new SpillingLogAppender(10);
+        appender.append("hello ");
+        appender.append("world ");
+        assertTrue(appender.isSpilled());
+        appender.append("foo");
+        assertEquals("hello world foo", appender.getBuffer());
+        File file = appender.collectFile();
+        assertNotNull(file);
+        assertEquals("hello world foo", FileUtils.toString(file));
+        assertFalse(appender.isSpilled());
+        assertEquals("", appender.collect());
+        file.delete();
+    }
+
+    @Test
+    void testSpillCollectAsString() {
+        SpillingLogAppender appender = new SpillingLogAppender(4);
+        appender.append("hello");
+        appender.append("world");
+        assertEquals("helloworld", appender.collect());
+        assertFalse(appender.isSpilled());
+    }
+
+}
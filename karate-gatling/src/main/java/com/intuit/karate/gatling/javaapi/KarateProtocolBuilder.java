@@ -24,7 +24,9 @@
 package com.intuit.karate.gatling.javaapi;
 
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.function.BiFunction;
 
 import com.intuit.karate.Runner;
@@ -43,6 +45,10 @@ public class KarateProtocolBuilder implements ProtocolBuilder {
 
     public BiFunction<HttpRequest, ScenarioRuntime, String> nameResolver;
     public Runner.Builder runner = new Runner.Builder();    
+    public int threads;
+    public boolean virtualThreads;
+    public List<String> workers = Collections.emptyList();
+    public String workerSecret;
 
     private final Map<String, Seq<MethodPause>> uriPatterns;
 
@@ -56,6 +62,29 @@ public class KarateProtocolBuilder implements ProtocolBuilder {
         return this;
     }
 
+    // zero (the default) for one thread per concurrent user
+    public KarateProtocolBuilder threads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    public KarateProtocolBuilder virtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+        return this;
+    }
+
+    // host:port of each worker, see KarateWorker
+    public KarateProtocolBuilder workers(String... addresses) {
+        this.workers = Arrays.asList(addresses);
+        return this;
+    }
+
+    // else the karate.worker.secret system property or KARATE_WORKER_SECRET is used
+    public KarateProtocolBuilder workerSecret(String workerSecret) {
+        this.workerSecret = workerSecret;
+        return this;
+    }
+
     @Override
     public KarateProtocol protocol() {
         KarateProtocol protocol = new KarateProtocol(uriPatterns);
@@ -63,6 +92,10 @@ public class KarateProtocolBuilder implements ProtocolBuilder {
             protocol.nameResolver_$eq((req, sr) -> nameResolver.apply(req, sr));                
         }
         protocol.runner_$eq(runner);
+        protocol.threads_$eq(threads);
+        protocol.virtualThreads_$eq(virtualThreads);
+        protocol.workers_$eq(Converters.toScalaSeq(workers));
+        protocol.workerSecret_$eq(workerSecret);
         return protocol;
     }
 
@@ -23,12 +23,12 @@
  */
 package com.intuit.karate.gatling
 
+import java.util.concurrent.ExecutorService
 import java.util.function.Consumer
 
-import akka.actor.ActorSystem
 import com.intuit.karate.core._
 import com.intuit.karate.http.HttpRequest
-import com.intuit.karate.{PerfHook, Runner}
+import com.intuit.karate.{FileUtils, PerfHook, Runner}
 import io.gatling.commons.stats.{KO, OK}
 import io.gatling.commons.util.Clock
 import io.gatling.core.action.builder.ActionBuilder
@@ -39,67 +39,39 @@ import io.gatling.core.structure.ScenarioContext
 import io.gatling.core.util.NameGen
 
 import scala.jdk.CollectionConverters._
-import scala.concurrent.duration.{Duration, MILLISECONDS}
-import scala.concurrent.{Await, ExecutionContextExecutor, Future}
 
-class KarateFeatureAction(val name: String, val tags: Seq[String], val protocol: KarateProtocol, val system: ActorSystem,
-                          val statsEngine: StatsEngine, val clock: Clock, val next: Action, val isSilent: Boolean = false) extends ExitableAction {
+class KarateFeatureAction(val name: String, val tags: Seq[String], val protocol: KarateProtocol, val executor: ExecutorService,
+                          val statsEngine: StatsEngine, val clock: Clock, val next: Action, val isSilent: Boolean = false,
+                          val workers: Seq[KarateWorkerClient] = Nil) extends ExitableAction {
+
+  // resolved once when the simulation starts, each iteration only creates a feature runtime
+  // on a coordinator the features run on the workers instead
+  private val suite = if (workers.isEmpty) protocol.suiteFor(tags) else null
+  private val feature = if (workers.isEmpty) FileUtils.parseFeatureAndCallTag(name) else null
 
   override def execute(session: Session) = {
 
-    implicit val executor: ExecutionContextExecutor = system.dispatcher
+    val pauseFunction: Consumer[java.lang.Number] = t => KarateProtocol.pause(t.intValue())
 
-    def pauseInternal(time: Int) = {
-      val duration = Duration(time, MILLISECONDS)
-      try {
-        Await.result(Future.never, duration)
-      } catch {
-        // we do all this to achieve a non-blocking "pause"
-        // and the timeout exception will ALWAYS be thrown
-        case e: Throwable => // do nothing
+    def logEvent(event: PerfEvent): Unit = {
+      if (isSilent) {
+        return
       }
+      val okOrNot = if (event.isFailed) KO else OK
+      val message = if (event.getMessage == null) None else Option(event.getMessage)
+      statsEngine.logResponse(session.scenario, session.groups, event.getName, event.getStartTime, event.getEndTime, okOrNot, Option(event.getStatusCode.toString), message)
     }
 
-    val pauseFunction: Consumer[java.lang.Number] = t => pauseInternal(t.intValue())
-
-    val perfHook = new PerfHook {
-
-      override def getPerfEventName(req: HttpRequest, sr: ScenarioRuntime): String = {
-        val customName = protocol.nameResolver.apply(req, sr)
-        val finalName = if (customName != null) customName else protocol.defaultNameResolver.apply(req, sr)
-        val pauseTime = protocol.pauseFor(finalName, req.getMethod)
-        if (pauseTime > 0) pause(pauseTime)
-        return if (customName != null) customName else req.getMethod + " " + finalName
+    def afterCall(empty: Boolean, failed: Boolean, vars: java.util.Map[String, Object]): Unit = {
+      val attributes: Map[String, AnyRef] = if (vars == null) Map.empty else {
+        vars.remove(KarateProtocol.GATLING_KEY)
+        vars.asScala.toMap
       }
-
-      override def reportPerfEvent(event: PerfEvent): Unit = {
-        if(isSilent){
-          return
-        }
-        val okOrNot = if (event.isFailed) KO else OK
-        val message = if (event.getMessage == null) None else Option(event.getMessage)
-        statsEngine.logResponse(session.scenario, session.groups, event.getName, event.getStartTime, event.getEndTime, okOrNot, Option(event.getStatusCode.toString), message)
-      }
-
-      override def submit(r: Runnable): Unit = Future {
-        r.run()
-      }
-
-      override def afterFeature(fr: FeatureResult): Unit = {
-        val vars: java.util.Map[String, Object] = fr.getVariables
-        val attributes: Map[String, AnyRef] = if (vars == null) Map.empty else {
-          vars.remove(KarateProtocol.GATLING_KEY)
-          vars.asScala.toMap
-        }
-        if (fr.isEmpty || fr.isFailed) {
-          next ! session.markAsFailed.set(KarateProtocol.KARATE_KEY, attributes).setAll(attributes)
-        } else {
-          next ! session.set(KarateProtocol.KARATE_KEY, attributes).setAll(attributes)
-        }
+      if (empty || failed) {
+        next ! session.markAsFailed.set(KarateProtocol.KARATE_KEY, attributes).setAll(attributes)
+      } else {
+        next ! session.set(KarateProtocol.KARATE_KEY, attributes).setAll(attributes)
       }
-
-      override def pause(millis: java.lang.Number): Unit = pauseFunction.accept(millis)
-
     }
 
     val gatlingSessionMap: java.util.Map[String, Any] = new java.util.HashMap(session.attributes.asInstanceOf[Map[String, Any]].asJava)
@@ -115,12 +87,32 @@ class KarateFeatureAction(val name: String, val tags: Seq[String], val protocol:
     gatlingSessionMap.put("pause", pauseFunction)
     callArg.put(KarateProtocol.GATLING_KEY, gatlingSessionMap)
 
-    val runner = protocol.runner.copy()
-    runner.callSingleCache(protocol.callSingleCache)
-    runner.callOnceCache(protocol.callOnceCache)
-    runner.tags(tags.asJava)
+    if (workers.nonEmpty) {
+      // a virtual user always goes to the same worker
+      val worker = workers((session.userId % workers.size).toInt)
+      worker.call(name, tags, callArg, new KarateWorkerCall {
+        override def onEvent(event: PerfEvent): Unit = logEvent(event)
+        override def onDone(empty: Boolean, failed: Boolean, vars: java.util.Map[String, Object]): Unit = afterCall(empty, failed, vars)
+      })
+    } else {
 
-    Runner.callAsync(runner, name, callArg, perfHook)
+      val perfHook = new PerfHook {
+
+        override def getPerfEventName(req: HttpRequest, sr: ScenarioRuntime): String = protocol.perfEventName(req, sr)
+
+        override def reportPerfEvent(event: PerfEvent): Unit = logEvent(event)
+
+        override def submit(r: Runnable): Unit = executor.execute(r)
+
+        override def afterFeature(fr: FeatureResult): Unit = afterCall(fr.isEmpty, fr.isFailed, fr.getVariables)
+
+        override def pause(millis: java.lang.Number): Unit = pauseFunction.accept(millis)
+
+      }
+
+      Runner.callAsync(suite, feature, callArg, perfHook)
+
+    }
 
   }
 
@@ -137,7 +129,7 @@ class KarateFeatureActionBuilder(name: String, tags: Seq[String]) extends Action
 
   override def build(ctx: ScenarioContext, next: Action): Action = {
     val karateComponents = ctx.protocolComponentsRegistry.components(KarateProtocol.KarateProtocolKey)
-    new KarateFeatureAction(name, tags, karateComponents.protocol, karateComponents.system, ctx.coreComponents.statsEngine, ctx.coreComponents.clock, next, isSilent)
+    new KarateFeatureAction(name, tags, karateComponents.protocol, karateComponents.executor, ctx.coreComponents.statsEngine, ctx.coreComponents.clock, next, isSilent, karateComponents.workers)
   }
 
 }
@@ -23,19 +23,31 @@
  */
 package com.intuit.karate.gatling
 
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.{ConcurrentHashMap, ExecutorService, Executors, ThreadFactory}
+
 import akka.actor.ActorSystem
-import com.intuit.karate.Runner
-import com.intuit.karate.http.{HttpRequest, HttpUtils}
-import com.intuit.karate.core.{ScenarioCall, ScenarioRuntime}
+import com.intuit.karate.{Runner, Suite}
+import com.intuit.karate.http.{HttpRequest, HttpUtils, UriPatternTrie}
+import com.intuit.karate.core.{ScenarioCall, ScenarioRuntime, VirtualThreadExecutorService}
 import io.gatling.core.CoreComponents
 import io.gatling.core.config.GatlingConfiguration
 import io.gatling.core.protocol.{Protocol, ProtocolComponents, ProtocolKey}
 import io.gatling.core.session.Session
+import org.slf4j.LoggerFactory
+
+import scala.jdk.CollectionConverters._
 
 case class MethodPause(val method: String, pause: Int)
 
 class KarateProtocol(val uriPatterns: Map[String, Seq[MethodPause]]) extends Protocol {
-  def pathMatches(uri: String): Option[String] = uriPatterns.keys.find(HttpUtils.parseUriPattern(_, uri) != null)
+  // compiled once, naming a request is then a single walk of the path that does not allocate
+  private val uriPatternTrie = {
+    val trie = new UriPatternTrie[String]
+    uriPatterns.keys.foreach(pattern => trie.add(pattern, pattern))
+    trie
+  }
+  def pathMatches(uri: String): Option[String] = Option(uriPatternTrie.lookup(uri))
   def pauseFor(requestName: String, method: String) = {
     val methodPause = uriPatterns.getOrElse(requestName, Nil).find(mp => method.equalsIgnoreCase(mp.method))
     if (methodPause.isDefined) methodPause.get.pause else 0
@@ -46,23 +58,89 @@ class KarateProtocol(val uriPatterns: Map[String, Seq[MethodPause]]) extends Pro
     if (matchedUri.isDefined) matchedUri.get else pathPair.right
   }
   var nameResolver: (HttpRequest, ScenarioRuntime) => String = (req, ctx) => null
+  // the name a request is reported under, any pause configured for it is applied first
+  def perfEventName(req: HttpRequest, sr: ScenarioRuntime): String = {
+    val customName = nameResolver.apply(req, sr)
+    val finalName = if (customName != null) customName else defaultNameResolver.apply(req, sr)
+    val pauseTime = pauseFor(finalName, req.getMethod)
+    if (pauseTime > 0) KarateProtocol.pause(pauseTime)
+    if (customName != null) customName else req.getMethod + " " + finalName
+  }
   var runner = new Runner.Builder
+  // features run on their own threads, never on the gatling / akka dispatcher
+  // zero (the default) means as many as there are concurrent users
+  var threads: Int = 0
+  var virtualThreads: Boolean = false
+  // host:port of each KarateWorker, when not empty features run on the workers and not in this jvm
+  var workers: Seq[String] = Nil
+  // the shared secret of the workers, if null the karate.worker.secret system property or KARATE_WORKER_SECRET is used
+  var workerSecret: String = null
+  // one connection per worker, shared by all the scenarios using this protocol
+  lazy val workerClients: Seq[KarateWorkerClient] = workers.map(new KarateWorkerClient(_, this))
   val callSingleCache = new java.util.HashMap[String, AnyRef]
   val callOnceCache = new java.util.HashMap[String, ScenarioCall.Result]
+  private val suites = new ConcurrentHashMap[Seq[String], Suite]
+
+  // one suite per tag selection shared by all users, so that config sources, hooks
+  // and the http client factory are resolved when the simulation starts, not per iteration
+  def suiteFor(tags: Seq[String]): Suite = suites.computeIfAbsent(tags, t => {
+    val builder = runner.copy()
+    builder.callSingleCache(callSingleCache)
+    builder.callOnceCache(callOnceCache)
+    builder.tags(t.asJava)
+    Runner.asyncSuite(builder)
+  })
+
+  def newExecutor(): ExecutorService = {
+    if (virtualThreads) {
+      val executor = VirtualThreadExecutorService.newExecutor(threads)
+      if (executor != null) {
+        return executor
+      }
+      KarateProtocol.logger.warn("virtual threads need java 21 or above, falling back to platform threads")
+    }
+    val counter = new AtomicInteger()
+    val factory: ThreadFactory = r => {
+      val thread = new Thread(r, "karate-gatling-" + counter.incrementAndGet())
+      thread.setDaemon(true)
+      thread
+    }
+    if (threads > 0) Executors.newFixedThreadPool(threads, factory) else Executors.newCachedThreadPool(factory)
+  }
 }
 
 object KarateProtocol {
+  private val logger = LoggerFactory.getLogger(classOf[KarateProtocol])
   val KARATE_KEY = "__karate"
   val GATLING_KEY = "__gatling"
+
+  // features run on karate threads and not the gatling dispatcher
+  // so this can block, and on a virtual thread it parks and frees the carrier thread
+  def pause(millis: Int): Unit = {
+    try {
+      Thread.sleep(millis)
+    } catch {
+      case e: InterruptedException => Thread.currentThread().interrupt()
+    }
+  }
+
   val KarateProtocolKey = new ProtocolKey[KarateProtocol, KarateComponents] {
     override def defaultProtocolValue(configuration: GatlingConfiguration) = new KarateProtocol(Map.empty)
     override def newComponents(coreComponents: CoreComponents)=
-      karateProtocol => KarateComponents(karateProtocol, coreComponents.actorSystem)
+      karateProtocol => {
+        val executor = karateProtocol.newExecutor()
+        val workers = karateProtocol.workerClients
+        coreComponents.actorSystem.registerOnTermination {
+          executor.shutdownNow()
+          workers.foreach(_.close())
+        }
+        KarateComponents(karateProtocol, coreComponents.actorSystem, executor, workers)
+      }
     override def protocolClass= classOf[KarateProtocol].asInstanceOf[Class[io.gatling.core.protocol.Protocol]]
   }
 }
 
-case class KarateComponents(val protocol: KarateProtocol, val system: ActorSystem) extends ProtocolComponents {
+case class KarateComponents(val protocol: KarateProtocol, val system: ActorSystem, val executor: ExecutorService, val workers: Seq[KarateWorkerClient] = Nil) extends ProtocolComponents {
   override def onStart: Session => Session = Session.Identity
   override def onExit: Session => Unit = ProtocolComponents.NoopOnExit
 }
@@ -0,0 +1,402 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2022 Karate Labs Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.gatling
+
+import java.io._
+import java.net.{InetAddress, ServerSocket, Socket}
+import java.nio.charset.StandardCharsets
+import java.nio.file.Paths
+import java.security.{MessageDigest, SecureRandom}
+import java.util.concurrent.ConcurrentHashMap
+import java.util.function.Consumer
+
+import com.intuit.karate.core.{FeatureCall, FeatureResult, PerfEvent, ScenarioRuntime}
+import com.intuit.karate.http.HttpRequest
+import com.intuit.karate.{FileUtils, JsonUtils, PerfHook, Runner}
+import org.slf4j.LoggerFactory
+
+import scala.jdk.CollectionConverters._
+
+/**
+ * the binary protocol between a coordinator and its workers, every frame starts with a type byte,
+ * strings are length-prefixed utf-8 and perf event names are sent once per connection and then
+ * referred to by id, events carry their own timestamps so the worker only flushes when a call is done
+ * lengths and counts come from the other side, so they are checked before anything is allocated
+ */
+object KarateWire {
+
+  val HELLO: Byte = 1 // coordinator: secret, uri patterns, threads, virtual threads - worker: its clock
+  val CALL: Byte = 2 // coordinator: call id, feature, tags, arg as json
+  val NAME: Byte = 3 // worker: name id, name
+  val EVENT: Byte = 4 // worker: call id, name id, start, end, status code, failed, message
+  val DONE: Byte = 5 // worker: call id, empty, failed, variables as json
+
+  val MAX_STRING: Int = 16 * 1024 * 1024 // bytes, for the call arg and result json
+  val MAX_SECRET: Int = 1024 // bytes, read before the coordinator is trusted
+  val MAX_COUNT: Int = 10000 // uri patterns, pauses per pattern and tags
+  val MAX_MESSAGE: Int = 4096 // chars of an error message sent with a perf event
+
+  // throws before writing anything, so that a frame is never left half written
+  def writeString(out: DataOutputStream, s: String): Unit = {
+    if (s == null) {
+      out.writeInt(-1)
+    } else {
+      val bytes = s.getBytes(StandardCharsets.UTF_8)
+      if (bytes.length > MAX_STRING) {
+        throw new IOException("string too long: " + bytes.length)
+      }
+      out.writeInt(bytes.length)
+      out.write(bytes)
+    }
+  }
+
+  def readString(in: DataInputStream, max: Int = MAX_STRING): String = {
+    val length = in.readInt()
+    if (length < -1 || length > max) {
+      throw new IOException("invalid string length: " + length)
+    }
+    if (length == -1) null else {
+      val bytes = new Array[Byte](length)
+      in.readFully(bytes)
+      new String(bytes, StandardCharsets.UTF_8)
+    }
+  }
+
+  def readCount(in: DataInputStream): Int = {
+    val count = in.readInt()
+    if (count < 0 || count > MAX_COUNT) {
+      throw new IOException("invalid count: " + count)
+    }
+    count
+  }
+
+  // a frame is built in memory first, so that a failure (such as a too long string) does not corrupt the stream
+  def frame(write: DataOutputStream => Unit): Array[Byte] = {
+    val bytes = new ByteArrayOutputStream()
+    write(new DataOutputStream(bytes))
+    bytes.toByteArray
+  }
+
+  def writePatterns(out: DataOutputStream, uriPatterns: Map[String, Seq[MethodPause]]): Unit = {
+    out.writeInt(uriPatterns.size)
+    uriPatterns.foreach { case (pattern, pauses) =>
+      writeString(out, pattern)
+      out.writeInt(pauses.size)
+      pauses.foreach { mp =>
+        writeString(out, mp.method)
+        out.writeInt(mp.pause)
+      }
+    }
+  }
+
+  def readPatterns(in: DataInputStream): Map[String, Seq[MethodPause]] = {
+    (1 to readCount(in)).map { _ =>
+      val pattern = readString(in)
+      pattern -> (1 to readCount(in)).map(_ => MethodPause(readString(in), in.readInt()))
+    }.toMap
+  }
+
+  // only json friendly values cross the wire, anything else such as a function is dropped
+  def toJson(map: java.util.Map[String, _]): String = JsonUtils.toJson(plain(map))
+
+  def fromJson(json: String): java.util.Map[String, Object] = {
+    if (json == null) null else JsonUtils.fromJson(json).asInstanceOf[java.util.Map[String, Object]]
+  }
+
+  private object Dropped
+
+  private def plain(value: Any): Any = value match {
+    case null => null
+    case v: String => v
+    case v: java.lang.Number => v
+    case v: java.lang.Boolean => v
+    case m: java.util.Map[_, _] => plainMap(m.asScala)
+    case m: scala.collection.Map[_, _] => plainMap(m)
+    case l: java.util.List[_] => plainList(l.asScala)
+    case l: scala.collection.Seq[_] => plainList(l)
+    case _ => Dropped
+  }
+
+  private def plainMap(m: scala.collection.Map[_, _]): java.util.Map[String, Any] = {
+    val map = new java.util.LinkedHashMap[String, Any](m.size)
+    m.foreach { case (k, v) =>
+      val p = plain(v)
+      if (p.asInstanceOf[AnyRef] ne Dropped) map.put(k.toString, p)
+    }
+    map
+  }
+
+  private def plainList(l: scala.collection.Seq[_]): java.util.List[Any] = {
+    val list = new java.util.ArrayList[Any](l.size)
+    l.foreach { v =>
+      val p = plain(v)
+      if (p.asInstanceOf[AnyRef] ne Dropped) list.add(p)
+    }
+    list
+  }
+
+}
+
+/**
+ * runs features for a coordinator (see KarateProtocol.workers) and streams the perf events back,
+ * the protocol is built from the uri patterns the coordinator sends and can be customized, for
+ * example to set a nameResolver, which cannot be sent over the wire
+ * a coordinator can make the worker run any feature on its class path, so it has to know the shared
+ * secret, and the worker only listens on the loopback interface unless a bind address is given
+ */
+class KarateWorker(port: Int, bindAddress: String, secret: String, customize: KarateProtocol => Unit) {
+
+  import KarateWire._
+
+  def this(port: Int, customize: KarateProtocol => Unit) = this(port, KarateWorker.bindAddress, KarateWorker.secret, customize)
+
+  def this(port: Int, secret: String) = this(port, KarateWorker.bindAddress, secret, _ => ())
+
+  def this(port: Int) = this(port, KarateWorker.bindAddress, KarateWorker.secret, _ => ())
+
+  if (secret == null || secret.isEmpty) {
+    throw new IllegalArgumentException("a shared secret is required, set " + KarateWorker.SECRET_PROPERTY + " or " + KarateWorker.SECRET_ENV)
+  }
+
+  private val secretBytes = secret.getBytes(StandardCharsets.UTF_8)
+
+  private val server = new ServerSocket(port, 50, InetAddress.getByName(bindAddress))
+
+  def getPort: Int = server.getLocalPort
+
+  // blocks, serving each coordinator on its own thread until stopped
+  def serve(): Unit = {
+    while (!server.isClosed) {
+      try {
+        val socket = server.accept()
+        new Thread(() => handle(socket), "karate-worker-" + socket.getPort).start()
+      } catch {
+        case e: IOException => if (!server.isClosed) KarateWorker.logger.error("accept failed: {}", e.getMessage)
+      }
+    }
+  }
+
+  def start(): KarateWorker = {
+    val thread = new Thread(() => serve(), "karate-worker")
+    thread.setDaemon(true)
+    thread.start()
+    this
+  }
+
+  def stop(): Unit = server.close()
+
+  private def handle(socket: Socket): Unit = {
+    socket.setTcpNoDelay(true)
+    val in = new DataInputStream(new BufferedInputStream(socket.getInputStream))
+    val out = new WorkerOutput(new DataOutputStream(new BufferedOutputStream(socket.getOutputStream)))
+    val protocol = try {
+      // so that a connection that never says hello does not hold on to a thread
+      socket.setSoTimeout(KarateWorker.HELLO_TIMEOUT)
+      if (in.readByte() != HELLO) {
+        throw new IOException("not a karate coordinator")
+      }
+      val bytes = readString(in, MAX_SECRET)
+      if (bytes == null || !MessageDigest.isEqual(secretBytes, bytes.getBytes(StandardCharsets.UTF_8))) {
+        throw new IOException("wrong secret")
+      }
+      val protocol = new KarateProtocol(readPatterns(in))
+      protocol.threads = in.readInt()
+      protocol.virtualThreads = in.readBoolean()
+      socket.setSoTimeout(0)
+      protocol
+    } catch {
+      case e: IOException =>
+        KarateWorker.logger.warn("rejected connection from {}: {}", socket.getRemoteSocketAddress, e.getMessage)
+        socket.close()
+        return
+    }
+    customize(protocol)
+    out.hello()
+    KarateWorker.logger.info("serving coordinator: {}", socket.getRemoteSocketAddress)
+    val executor = protocol.newExecutor()
+    val features = new ConcurrentHashMap[String, FeatureCall]
+    val pauseFunction: Consumer[java.lang.Number] = t => KarateProtocol.pause(t.intValue())
+    try {
+      while (true) {
+        val frame = in.readByte()
+        if (frame != CALL) {
+          throw new IOException("unexpected frame: " + frame)
+        }
+        val callId = in.readInt()
+        val name = readString(in)
+        val tags = (1 to readCount(in)).map(_ => readString(in))
+        val callArg = fromJson(readString(in))
+        val gatlingSessionMap = callArg.get(KarateProtocol.GATLING_KEY)
+        if (gatlingSessionMap != null) {
+          gatlingSessionMap.asInstanceOf[java.util.Map[String, Object]].put("pause", pauseFunction)
+        }
+        val perfHook = new PerfHook {
+          override def getPerfEventName(req: HttpRequest, sr: ScenarioRuntime): String = protocol.perfEventName(req, sr)
+          override def reportPerfEvent(event: PerfEvent): Unit = out.event(callId, event)
+          override def submit(r: Runnable): Unit = executor.execute(r)
+          override def afterFeature(fr: FeatureResult): Unit = out.done(callId, fr.isEmpty, fr.isFailed, fr.getVariables)
+          override def pause(millis: java.lang.Number): Unit = pauseFunction.accept(millis)
+        }
+        try {
+          val feature = features.computeIfAbsent(name, FileUtils.parseFeatureAndCallTag(_))
+          Runner.callAsync(protocol.suiteFor(tags), feature, callArg, perfHook)
+        } catch {
+          case e: Exception =>
+            KarateWorker.logger.error("call failed: {} - {}", name, e.getMessage)
+            out.done(callId, true, true, null)
+        }
+      }
+    } catch {
+      case e: EOFException => KarateWorker.logger.info("coordinator disconnected: {}", socket.getRemoteSocketAddress)
+      case e: IOException => KarateWorker.logger.error("coordinator connection failed: {}", e.getMessage)
+    } finally {
+      executor.shutdownNow()
+      socket.close()
+    }
+  }
+
+  // writes are from the karate threads, so they are serialized here
+  private class WorkerOutput(out: DataOutputStream) {
+
+    private val names = new java.util.HashMap[String, Integer]
+
+    def hello(): Unit = synchronized {
+      out.writeByte(HELLO)
+      out.writeLong(System.currentTimeMillis())
+      out.flush()
+    }
+
+    def event(callId: Int, event: PerfEvent): Unit = {
+      try {
+        synchronized {
+          var nameId = names.get(event.getName)
+          if (nameId == null) {
+            nameId = names.size
+            names.put(event.getName, nameId)
+            out.writeByte(NAME)
+            out.writeInt(nameId)
+            writeString(out, event.getName)
+          }
+          out.writeByte(EVENT)
+          out.writeInt(callId)
+          out.writeInt(nameId)
+          out.writeLong(event.getStartTime)
+          out.writeLong(event.getEndTime)
+          out.writeInt(event.getStatusCode)
+          out.writeBoolean(event.isFailed)
+          val message = event.getMessage
+          writeString(out, if (message == null || message.length <= MAX_MESSAGE) message else message.substring(0, MAX_MESSAGE))
+        }
+      } catch {
+        case e: IOException => // the coordinator is gone, which the read loop will report
+      }
+    }
+
+    def done(callId: Int, empty: Boolean, failed: Boolean, vars: java.util.Map[String, Object]): Unit = {
+      if (vars != null) {
+        vars.remove(KarateProtocol.GATLING_KEY)
+      }
+      val json = if (vars == null) null else toJson(vars)
+      val bytes = try frame(writeDone(_, callId, empty, failed, json)) catch {
+        case e: IOException =>
+          KarateWorker.logger.warn("variables of call {} not sent: {}", callId, e.getMessage)
+          frame(writeDone(_, callId, empty, true, null))
+      }
+      try {
+        synchronized {
+          out.write(bytes)
+          out.flush()
+        }
+      } catch {
+        case e: IOException => KarateWorker.logger.warn("could not send result of call {}: {}", callId, e.getMessage)
+      }
+    }
+
+    private def writeDone(out: DataOutputStream, callId: Int, empty: Boolean, failed: Boolean, json: String): Unit = {
+      out.writeByte(DONE)
+      out.writeInt(callId)
+      out.writeBoolean(empty)
+      out.writeBoolean(failed)
+      writeString(out, json)
+    }
+
+  }
+
+}
+
+object KarateWorker {
+
+  private val logger = LoggerFactory.getLogger(classOf[KarateWorker])
+
+  val SECRET_PROPERTY = "karate.worker.secret"
+  val SECRET_ENV = "KARATE_WORKER_SECRET"
+  val BIND_PROPERTY = "karate.worker.bind"
+  val HELLO_TIMEOUT = 30000
+
+  // the system property wins over the environment variable
+  def secret: String = {
+    val secret = System.getProperty(SECRET_PROPERTY)
+    if (secret != null) secret else System.getenv(SECRET_ENV)
+  }
+
+  // loopback unless set, for example to 0.0.0.0 to accept coordinators from other machines
+  def bindAddress: String = System.getProperty(BIND_PROPERTY, InetAddress.getLoopbackAddress.getHostAddress)
+
+  // java -Dkarate.worker.secret=<secret> [-Dkarate.worker.bind=<address>] com.intuit.karate.gatling.KarateWorker <port> [<pid to exit with>]
+  def main(args: Array[String]): Unit = {
+    val worker = new KarateWorker(if (args.isEmpty) 0 else args(0).toInt)
+    logger.info("karate worker listening on {}:{}", bindAddress, worker.getPort)
+    if (args.length > 1) {
+      ProcessHandle.of(args(1).toLong).ifPresent(_.onExit().thenRun(() => System.exit(0)))
+    }
+    worker.serve()
+  }
+
+  // starts worker processes on this machine with the same class path, to try out or test the distributed mode
+  // they exit with this jvm, a secret is generated (and set as a system property for the protocol) if there is none
+  def fork(count: Int, systemProperties: Map[String, String] = Map.empty): Seq[String] = {
+    val java = Paths.get(System.getProperty("java.home"), "bin", "java").toString
+    if (secret == null) {
+      val bytes = new Array[Byte](16)
+      new SecureRandom().nextBytes(bytes)
+      System.setProperty(SECRET_PROPERTY, bytes.map("%02x".format(_)).mkString)
+    }
+    (1 to count).map { _ =>
+      val port = {
+        val temp = new ServerSocket(0)
+        try temp.getLocalPort finally temp.close()
+      }
+      val command = Seq(java, "-cp", System.getProperty("java.class.path")) ++
+        systemProperties.map { case (k, v) => "-D" + k + "=" + v } ++
+        Seq(classOf[KarateWorker].getName, port.toString, ProcessHandle.current().pid().toString)
+      val builder = new ProcessBuilder(command.asJava).inheritIO()
+      // not on the command line, where other users of the machine could see it
+      builder.environment().put(SECRET_ENV, secret)
+      val process = builder.start()
+      Runtime.getRuntime.addShutdownHook(new Thread(() => process.destroy()))
+      "localhost:" + port
+    }
+  }
+
+}
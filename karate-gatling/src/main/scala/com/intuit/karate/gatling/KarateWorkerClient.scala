@@ -0,0 +1,219 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2022 Karate Labs Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.gatling
+
+import java.io._
+import java.net.{ConnectException, Socket}
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+
+import com.intuit.karate.core.PerfEvent
+import org.slf4j.LoggerFactory
+
+trait KarateWorkerCall {
+
+  def onEvent(event: PerfEvent): Unit
+
+  def onDone(empty: Boolean, failed: Boolean, vars: java.util.Map[String, Object]): Unit
+
+}
+
+/**
+ * the coordinator side of a connection to a KarateWorker, events are reported on the thread reading
+ * from the worker, with their timestamps moved to this jvm's clock
+ */
+class KarateWorkerClient(val address: String, protocol: KarateProtocol, connectTimeoutMillis: Long = 30000) {
+
+  import KarateWire._
+
+  private val socket = KarateWorkerClient.connect(address, connectTimeoutMillis)
+  private val in = new DataInputStream(new BufferedInputStream(socket.getInputStream))
+  private val out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream))
+  private val calls = new ConcurrentHashMap[Integer, KarateWorkerCall]
+  private val callIds = new AtomicInteger()
+  @volatile private var closed = false
+  @volatile private var failed = false // once the reader is gone, no call can complete
+
+  // offset to add to worker timestamps, half the round trip is the best guess for the one-way delay
+  val clockOffset: Long = {
+    val secret = if (protocol.workerSecret != null) protocol.workerSecret else KarateWorker.secret
+    if (secret == null) {
+      socket.close()
+      throw new IllegalArgumentException("a shared secret is required, set workerSecret or " + KarateWorker.SECRET_PROPERTY + " or " + KarateWorker.SECRET_ENV)
+    }
+    val before = System.currentTimeMillis()
+    out.writeByte(HELLO)
+    writeString(out, secret)
+    writePatterns(out, protocol.uriPatterns)
+    out.writeInt(protocol.threads)
+    out.writeBoolean(protocol.virtualThreads)
+    out.flush()
+    socket.setSoTimeout(connectTimeoutMillis.toInt)
+    val reply = try in.readByte() catch {
+      case e: EOFException =>
+        socket.close()
+        throw new IOException("connection closed by worker, check the secret: " + address)
+    }
+    if (reply != HELLO) {
+      socket.close()
+      throw new IOException("not a karate worker: " + address)
+    }
+    val workerTime = in.readLong()
+    socket.setSoTimeout(0)
+    (before + System.currentTimeMillis()) / 2 - workerTime
+  }
+
+  private val reader = new Thread(() => read(), "karate-coordinator-" + address)
+  reader.setDaemon(true)
+  reader.start()
+
+  def call(name: String, tags: Seq[String], arg: java.util.Map[String, _], call: KarateWorkerCall): Unit = {
+    val callId = callIds.incrementAndGet()
+    calls.put(callId, call)
+    // checked after the put, so either this or the reader fails the call, both use remove()
+    if (failed) {
+      if (calls.remove(callId) != null) {
+        call.onDone(true, true, null)
+      }
+      return
+    }
+    try {
+      val bytes = frame { out =>
+        out.writeByte(CALL)
+        out.writeInt(callId)
+        writeString(out, name)
+        out.writeInt(tags.size)
+        tags.foreach(writeString(out, _))
+        writeString(out, toJson(arg))
+      }
+      synchronized {
+        out.write(bytes)
+        out.flush()
+      }
+    } catch {
+      case e: IOException =>
+        KarateWorkerClient.logger.error("call failed: {} - {}", name, e.getMessage)
+        if (calls.remove(callId) != null) {
+          call.onDone(true, true, null)
+        }
+    }
+  }
+
+  def pending: Int = calls.size
+
+  def close(): Unit = {
+    closed = true
+    socket.close()
+  }
+
+  private def read(): Unit = {
+    val names = new java.util.HashMap[Integer, String]
+    try {
+      while (true) {
+        in.readByte() match {
+          case NAME =>
+            val nameId = in.readInt()
+            names.put(nameId, readString(in))
+          case EVENT =>
+            val callId = in.readInt()
+            val name = names.get(in.readInt())
+            val startTime = in.readLong() + clockOffset
+            val endTime = in.readLong() + clockOffset
+            val event = new PerfEvent(startTime, endTime, name, in.readInt())
+            event.setFailed(in.readBoolean())
+            event.setMessage(readString(in))
+            val call = calls.get(callId)
+            if (call != null) {
+              safely(callId, call.onEvent(event))
+            }
+          case DONE =>
+            val callId = in.readInt()
+            val empty = in.readBoolean()
+            val callFailed = in.readBoolean()
+            val json = readString(in)
+            val call = calls.remove(callId)
+            if (call != null) {
+              safely(callId, call.onDone(empty, callFailed, fromJson(json)))
+            }
+          case frame =>
+            throw new IOException("unexpected frame: " + frame)
+        }
+      }
+    } catch {
+      case e: IOException => if (!closed) KarateWorkerClient.logger.error("lost worker {}: {}", address, e.getMessage)
+      case e: Throwable => KarateWorkerClient.logger.error("reading from worker {} failed: {}", address, e.toString)
+    } finally {
+      // so that no virtual user waits forever, calls made from now on fail right away
+      failed = true
+      socket.close()
+      calls.keySet.forEach(callId => {
+        val call = calls.remove(callId)
+        if (call != null) {
+          safely(callId, call.onDone(true, true, null))
+        }
+      })
+    }
+  }
+
+  // a failing callback (such as bad json or the stats engine) fails its call, not the connection
+  private def safely(callId: Int, callback: => Unit): Unit = {
+    try callback catch {
+      case e: Exception =>
+        KarateWorkerClient.logger.error("call {} to worker {} failed: {}", callId, address, e.toString)
+        val call = calls.remove(callId)
+        if (call != null) {
+          call.onDone(true, true, null)
+        }
+    }
+  }
+
+}
+
+object KarateWorkerClient {
+
+  private val logger = LoggerFactory.getLogger(classOf[KarateWorkerClient])
+
+  // retries until the worker is up, which takes a while for a freshly started jvm
+  def connect(address: String, timeoutMillis: Long): Socket = {
+    val pos = address.lastIndexOf(':')
+    val host = address.substring(0, pos)
+    val port = address.substring(pos + 1).toInt
+    val deadline = System.currentTimeMillis() + timeoutMillis
+    while (true) {
+      try {
+        val socket = new Socket(host, port)
+        socket.setTcpNoDelay(true)
+        return socket
+      } catch {
+        case e: ConnectException =>
+          if (System.currentTimeMillis() > deadline) {
+            throw new IOException("worker not reachable: " + address, e)
+          }
+          Thread.sleep(200)
+      }
+    }
+    null
+  }
+
+}
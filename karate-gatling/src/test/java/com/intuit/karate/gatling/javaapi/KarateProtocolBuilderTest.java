@@ -2,21 +2,44 @@ package com.intuit.karate.gatling.javaapi;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.lang.reflect.Field;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 
 import org.junit.jupiter.api.Test;
 
 import com.intuit.karate.Runner;
+import com.intuit.karate.Suite;
+import com.intuit.karate.core.PerfEvent;
 import com.intuit.karate.core.ScenarioRuntime;
 import com.intuit.karate.http.HttpRequest;
 
 import io.gatling.javaapi.core.internal.Converters;
 
 import com.intuit.karate.gatling.KarateProtocol;
+import com.intuit.karate.gatling.KarateWire;
+import com.intuit.karate.gatling.KarateWorker;
+import com.intuit.karate.gatling.KarateWorkerCall;
+import com.intuit.karate.gatling.KarateWorkerClient;
 import com.intuit.karate.gatling.MethodPause;
 
 
@@ -62,5 +85,122 @@ class KarateProtocolBuilderTest   {
         assertTrue(protocol.pathMatches("/bar").isDefined());
         assertFalse(protocol.pathMatches("/foobar").isDefined());
 
+        protocol = KarateDsl.karateProtocol(
+            KarateDsl.uri("/cats/{id}").nil(),
+            KarateDsl.uri("/cats/new").nil()
+        ).protocol();
+        assertEquals("/cats/new", protocol.pathMatches("/cats/new").get());
+        assertEquals("/cats/{id}", protocol.pathMatches("/cats/1?foo=bar").get());
+        assertFalse(protocol.pathMatches("/cats/1/kittens").isDefined());
+
+    }
+
+    @Test
+    void executor() throws Exception {
+        KarateProtocol protocol = KarateDsl.karateProtocol(KarateDsl.uri("foo").nil()).threads(3).protocol();
+        assertEquals(3, protocol.threads());
+        ExecutorService executor = protocol.newExecutor();
+        assertEquals(3, ((ThreadPoolExecutor) executor).getMaximumPoolSize());
+        Future<String> name = executor.submit(() -> Thread.currentThread().getName());
+        assertTrue(name.get().startsWith("karate-gatling-"));
+        executor.shutdownNow();
+        // virtual threads fall back to platform threads before java 21
+        protocol = KarateDsl.karateProtocol(KarateDsl.uri("foo").nil()).virtualThreads(true).protocol();
+        executor = protocol.newExecutor();
+        assertTrue(executor.submit(() -> true).get());
+        executor.shutdownNow();
+    }
+
+    @Test
+    void suiteFor() {
+        KarateProtocol protocol = KarateDsl.karateProtocol(KarateDsl.uri("foo").nil()).protocol();
+        Suite suite = protocol.suiteFor(Converters.toScalaSeq(Collections.singletonList("@name=foo")));
+        assertSame(suite, protocol.suiteFor(Converters.toScalaSeq(Collections.singletonList("@name=foo"))));
+        assertNotSame(suite, protocol.suiteFor(Converters.toScalaSeq(Collections.emptyList())));
+        assertSame(protocol.callOnceCache(), suite.callOnceCache);
+    }
+
+    static class Call implements KarateWorkerCall {
+
+        final List<PerfEvent> events = new CopyOnWriteArrayList();
+        final CompletableFuture<Map<String, Object>> done = new CompletableFuture();
+        boolean empty;
+        boolean failed;
+
+        @Override
+        public void onEvent(PerfEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void onDone(boolean empty, boolean failed, Map<String, Object> vars) {
+            this.empty = empty;
+            this.failed = failed;
+            done.complete(vars == null ? Collections.emptyMap() : vars);
+        }
+
     }
+
+    @Test
+    void worker() throws Exception {
+        KarateWorker worker = new KarateWorker(0, "s3cret").start();
+        KarateProtocol protocol = KarateDsl.karateProtocol(KarateDsl.uri("foo").nil()).workerSecret("s3cret").protocol();
+        KarateWorkerClient client = new KarateWorkerClient("localhost:" + worker.getPort(), protocol, 5000);
+        Map<String, Object> gatling = new HashMap();
+        gatling.put("userId", 1);
+        gatling.put("pause", (java.util.function.Consumer<Number>) millis -> {}); // not sent
+        Map<String, Object> arg = new HashMap();
+        arg.put(KarateProtocol.GATLING_KEY(), gatling);
+        Call call = new Call();
+        client.call("classpath:mock/custom-rpc.feature", Converters.toScalaSeq(Collections.emptyList()), arg, call);
+        Map<String, Object> vars = call.done.get();
+        assertTrue(call.failed); // one scenario fails on purpose
+        assertFalse(call.empty);
+        assertEquals(3, call.events.size());
+        assertEquals("myRpc-50", call.events.get(0).getName());
+        assertTrue(call.events.get(0).getEndTime() - call.events.get(0).getStartTime() >= 50);
+        assertEquals(100, ((Map) vars.get("payload")).get("sleep"));
+        assertFalse(vars.containsKey(KarateProtocol.GATLING_KEY()));
+        call = new Call();
+        client.call("classpath:mock/not-found.feature", Converters.toScalaSeq(Collections.emptyList()), arg, call);
+        assertEquals(Collections.emptyMap(), call.done.get());
+        assertTrue(call.failed);
+        assertEquals(0, client.pending());
+        client.close();
+        worker.stop();
+    }
+
+    @Test
+    void workerClientFailsCallsOnceClosed() throws Exception {
+        KarateWorker worker = new KarateWorker(0, "s3cret").start();
+        KarateProtocol protocol = KarateDsl.karateProtocol(KarateDsl.uri("foo").nil()).workerSecret("s3cret").protocol();
+        KarateWorkerClient client = new KarateWorkerClient("localhost:" + worker.getPort(), protocol, 5000);
+        client.close();
+        Call call = new Call();
+        client.call("classpath:mock/custom-rpc.feature", Converters.toScalaSeq(Collections.emptyList()), new HashMap(), call);
+        call.done.get(5, TimeUnit.SECONDS);
+        assertTrue(call.failed);
+        assertEquals(0, client.pending());
+        worker.stop();
+    }
+
+    @Test
+    void workerRejectsWrongSecret() throws Exception {
+        KarateWorker worker = new KarateWorker(0, "s3cret").start();
+        KarateProtocol protocol = KarateDsl.karateProtocol(KarateDsl.uri("foo").nil()).workerSecret("wrong").protocol();
+        assertThrows(IOException.class, () -> new KarateWorkerClient("localhost:" + worker.getPort(), protocol, 5000));
+        worker.stop();
+    }
+
+    @Test
+    void wireRejectsHugeLengths() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(Integer.MAX_VALUE);
+        out.writeInt(-2);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        assertThrows(IOException.class, () -> KarateWire.readString(in, KarateWire.MAX_STRING()));
+        assertThrows(IOException.class, () -> KarateWire.readCount(in));
+    }
+
 }
@@ -0,0 +1,32 @@
+package mock
+
+import com.intuit.karate.gatling.KarateWorker
+import com.intuit.karate.gatling.PreDef._
+import io.gatling.core.Predef._
+
+import scala.concurrent.duration._
+
+class CatsDistributedSimulation extends Simulation {
+
+  MockUtils.startServer(0)
+
+  val protocol = karateProtocol(
+    "/cats/{id}" -> Nil,
+    "/cats" -> pauseFor("get" -> 15, "post" -> 25)
+  )
+
+  // two local worker jvms, which could as well be on other machines
+  protocol.workers = KarateWorker.fork(2, Map("mock.port" -> System.getProperty("mock.port")))
+
+  val create = scenario("create").exec(karateFeature("classpath:mock/cats-create.feature")).exec(session => {
+    println("*** id in gatling: " + session("id").as[String])
+    session
+  })
+  val custom = scenario("custom").exec(karateFeature("classpath:mock/custom-rpc.feature"))
+
+  setUp(
+    create.inject(rampUsers(10) during (5 seconds)).protocols(protocol),
+    custom.inject(rampUsers(10) during (5 seconds)).protocols(protocol)
+  )
+
+}